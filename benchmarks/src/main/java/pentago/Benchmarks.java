@@ -0,0 +1,40 @@
+package pentago;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the gc profiler, so results report allocation rate next to ops/s. It accepts the same
+ * arguments as the JMH command line, for example a regular expression of benchmarks to run.
+ */
+public class Benchmarks {
+    /**
+     * Utility class, not instantiable
+     */
+    private Benchmarks() {
+    }
+
+    /**
+     * Main method of benchmarks
+     *
+     * @param args JMH command line arguments
+     * @throws CommandLineOptionException if arguments are invalid
+     * @throws RunnerException            if a benchmark fails
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        Runner runner = new Runner(new OptionsBuilder()
+                .parent(commandLineOptions)
+                .addProfiler(GCProfiler.class)
+                .build());
+        if (commandLineOptions.shouldList()) {
+            runner.list();
+        } else {
+            runner.run();
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package pentago;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pentago.ai.Evaluator;
+import pentago.ai.WeightedEvaluator;
+
+/**
+ * Benchmarks of board operations that the game and the search call most. Each operation runs on all positions of
+ * {@link Positions}, so a score is the number of passes over the corpus per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+    /**
+     * Boards of corpus positions
+     */
+    private Board[] boards;
+    /**
+     * Bitboards of corpus positions
+     */
+    private BitBoard[] bitBoards;
+    /**
+     * Clockwise rotation
+     */
+    private Rotation clockwise;
+    /**
+     * Anti-clockwise rotation
+     */
+    private Rotation antiClockwise;
+    /**
+     * Reused buffer of empty cells
+     */
+    private int[] cells = new int[36];
+    /**
+     * Red cells of corpus positions
+     */
+    private long[] redMasks;
+    /**
+     * Black cells of corpus positions
+     */
+    private long[] blackMasks;
+    /**
+     * Reused buffer of scores of corpus positions
+     */
+    private int[] scores;
+
+    /**
+     * Creates corpus positions.
+     */
+    @Setup
+    public void setUp() {
+        boards = Positions.createBoards();
+        bitBoards = new BitBoard[boards.length];
+        for (int i = 0; i < boards.length; i++) {
+            bitBoards[i] = new BitBoard(boards[i]);
+        }
+        redMasks = new long[boards.length];
+        blackMasks = new long[boards.length];
+        scores = new int[boards.length];
+        for (int i = 0; i < boards.length; i++) {
+            redMasks[i] = bitBoards[i].getRedMask();
+            blackMasks[i] = bitBoards[i].getBlackMask();
+        }
+        clockwise = Rotation.CLOCKWISE;
+        antiClockwise = Rotation.ANTI_CLOCKWISE;
+    }
+
+    /**
+     * Win detection of {@link Board#hasWinner()}.
+     *
+     * @param blackhole consumer of results
+     */
+    @Benchmark
+    public void hasWinner(Blackhole blackhole) {
+        for (Board board : boards) {
+            blackhole.consume(board.hasWinner());
+        }
+    }
+
+    /**
+     * Win detection of {@link BitBoard#hasWinner()}.
+     *
+     * @param blackhole consumer of results
+     */
+    @Benchmark
+    public void bitBoardHasWinner(Blackhole blackhole) {
+        for (BitBoard board : bitBoards) {
+            blackhole.consume(board.hasWinner());
+        }
+    }
+
+    /**
+     * Scoring all positions for red in a single batch with {@link WeightedEvaluator#DEFAULT}, that the search calls
+     * for children at the last level.
+     *
+     * @return scores to consume
+     */
+    @Benchmark
+    public int[] batchEvaluate() {
+        WeightedEvaluator.DEFAULT.evaluate(redMasks, blackMasks, redMasks.length, scores);
+        return scores;
+    }
+
+    /**
+     * Scoring all positions for red one by one with {@link WeightedEvaluator#DEFAULT}, the baseline of
+     * {@link #batchEvaluate()}.
+     *
+     * @return scores to consume
+     */
+    @Benchmark
+    public int[] evaluate() {
+        Evaluator evaluator = WeightedEvaluator.DEFAULT;
+        for (int i = 0; i < redMasks.length; i++) {
+            scores[i] = evaluator.evaluate(redMasks[i], blackMasks[i]);
+        }
+        return scores;
+    }
+
+    /**
+     * Block rotation of {@link Board#rotate(int, Rotation)}. Every block is rotated clockwise and back, so boards do
+     * not change between invocations.
+     *
+     * @return a board to consume
+     */
+    @Benchmark
+    public Board rotate() {
+        for (Board board : boards) {
+            for (int blockNumber = 1; blockNumber <= 4; blockNumber++) {
+                board.rotate(blockNumber, clockwise);
+                board.rotate(blockNumber, antiClockwise);
+            }
+        }
+        return boards[0];
+    }
+
+    /**
+     * Listing empty cells with {@link Board#getEmptyCells()}, that allocates an array for each cell.
+     *
+     * @param blackhole consumer of results
+     */
+    @Benchmark
+    public void emptyCellList(Blackhole blackhole) {
+        for (Board board : boards) {
+            blackhole.consume(board.getEmptyCells());
+        }
+    }
+
+    /**
+     * Listing empty cells with {@link Board#getEmptyCells(int[])} to a reused buffer.
+     *
+     * @param blackhole consumer of results
+     */
+    @Benchmark
+    public void emptyCellBuffer(Blackhole blackhole) {
+        for (Board board : boards) {
+            blackhole.consume(board.getEmptyCells(cells));
+        }
+    }
+
+    /**
+     * Copying a board with {@link Board#Board(Board)}.
+     *
+     * @param blackhole consumer of results
+     */
+    @Benchmark
+    public void copy(Blackhole blackhole) {
+        for (Board board : boards) {
+            blackhole.consume(new Board(board));
+        }
+    }
+
+    /**
+     * Converting a board with {@link BitBoard#BitBoard(Board)}, that every search does once.
+     *
+     * @param blackhole consumer of results
+     */
+    @Benchmark
+    public void toBitBoard(Blackhole blackhole) {
+        for (Board board : boards) {
+            blackhole.consume(new BitBoard(board));
+        }
+    }
+}
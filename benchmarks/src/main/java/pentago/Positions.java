@@ -0,0 +1,73 @@
+package pentago;
+
+import java.util.Random;
+
+/**
+ * Fixed corpus of midgame positions for benchmarks. Positions are made by random moves from a fixed seed, so every
+ * run measures the same boards. Each position has an even number of pieces and no winner, so red moves next.
+ */
+public final class Positions {
+    /**
+     * Number of positions of the corpus
+     */
+    public static final int COUNT = 8;
+    /**
+     * Seed of random moves that make the positions
+     */
+    private static final long SEED = 20200314L;
+
+    /**
+     * Utility class, not instantiable
+     */
+    private Positions() {
+    }
+
+    /**
+     * Creates the red and black players of corpus positions.
+     *
+     * @return array of red player and black player
+     */
+    public static Player[] createPlayers() {
+        Player red = new HumanPlayer("Red");
+        red.setPiece(Block.RED_PIECE);
+        Player black = new HumanPlayer("Black");
+        black.setPiece(Block.BLACK_PIECE);
+        return new Player[]{red, black};
+    }
+
+    /**
+     * Creates boards of the corpus, with 10 to 16 pieces.
+     *
+     * @return new boards of all positions
+     */
+    public static Board[] createBoards() {
+        Random random = new Random(SEED);
+        Board[] boards = new Board[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            int pieceCount = 10 + (i % 4) * 2;
+            do {
+                boards[i] = createBoard(random, pieceCount);
+            } while (boards[i].isGameFinished());
+        }
+        return boards;
+    }
+
+    /**
+     * Creates a board by playing random moves.
+     *
+     * @param random     random source of moves
+     * @param pieceCount number of moves to play
+     * @return created board
+     */
+    private static Board createBoard(Random random, int pieceCount) {
+        Board board = new Board();
+        int[] cells = new int[36];
+        for (int i = 0; i < pieceCount && !board.isGameFinished(); i++) {
+            int cell = cells[random.nextInt(board.getEmptyCells(cells))];
+            board.putPiece(i % 2 == 0 ? Block.RED_PIECE : Block.BLACK_PIECE, cell / 9 + 1, cell % 9 + 1);
+            Rotation rotation = random.nextBoolean() ? Rotation.CLOCKWISE : Rotation.ANTI_CLOCKWISE;
+            board.rotate(random.nextInt(4) + 1, rotation);
+        }
+        return board;
+    }
+}
@@ -0,0 +1,118 @@
+package pentago.ai;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pentago.BitBoard;
+import pentago.Board;
+import pentago.Player;
+import pentago.Positions;
+
+/**
+ * Benchmarks of game state operations that the search calls at every node, on all positions of {@link Positions}.
+ * A score is the number of passes over the corpus per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameStateBenchmark {
+    /**
+     * Red and black players, red moves next in all positions
+     */
+    private Player[] players;
+    /**
+     * Game states of corpus positions
+     */
+    private GameState[] gameStates;
+    /**
+     * Reusable move buffer
+     */
+    private int[] moves = new int[Move.MAX_MOVES];
+
+    /**
+     * Creates corpus positions.
+     */
+    @Setup
+    public void setUp() {
+        Board[] boards = Positions.createBoards();
+        players = Positions.createPlayers();
+        gameStates = new GameState[boards.length];
+        for (int i = 0; i < boards.length; i++) {
+            gameStates[i] = new GameState(new BitBoard(boards[i]), true, players[0], players[1]);
+        }
+    }
+
+    /**
+     * Move generation of {@link GameState#generateMoves(int[])}.
+     *
+     * @param blackhole consumer of results
+     */
+    @Benchmark
+    public void generateMoves(Blackhole blackhole) {
+        for (GameState gameState : gameStates) {
+            blackhole.consume(gameState.generateMoves(moves));
+        }
+    }
+
+    /**
+     * Move generation without moves of same or symmetric results, of {@link GameState#generateDistinctMoves(int[])}.
+     *
+     * @param blackhole consumer of results
+     */
+    @Benchmark
+    public void generateDistinctMoves(Blackhole blackhole) {
+        for (GameState gameState : gameStates) {
+            blackhole.consume(gameState.generateDistinctMoves(moves));
+        }
+    }
+
+    /**
+     * Transposition table key of {@link GameState#getCanonicalSymmetry()} and {@link GameState#getHash(int)}.
+     *
+     * @param blackhole consumer of results
+     */
+    @Benchmark
+    public void canonicalHash(Blackhole blackhole) {
+        for (GameState gameState : gameStates) {
+            blackhole.consume(gameState.getHash(gameState.getCanonicalSymmetry()));
+        }
+    }
+
+    /**
+     * Applying and undoing every available move with {@link GameState#apply(int)} and {@link GameState#undo(int)}.
+     *
+     * @param blackhole consumer of results
+     */
+    @Benchmark
+    public void applyAndUndo(Blackhole blackhole) {
+        for (GameState gameState : gameStates) {
+            int count = gameState.generateMoves(moves);
+            for (int i = 0; i < count; i++) {
+                gameState.apply(moves[i]);
+                blackhole.consume(gameState.isGameOver());
+                gameState.undo(moves[i]);
+            }
+        }
+    }
+
+    /**
+     * Leaf evaluation of {@link GameState#computeScore(Player, Player)}.
+     *
+     * @param blackhole consumer of results
+     */
+    @Benchmark
+    public void computeScore(Blackhole blackhole) {
+        for (GameState gameState : gameStates) {
+            blackhole.consume(gameState.computeScore(players[0], players[1]));
+        }
+    }
+}
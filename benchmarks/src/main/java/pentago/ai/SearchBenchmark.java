@@ -0,0 +1,97 @@
+package pentago.ai;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pentago.Board;
+import pentago.Player;
+import pentago.Positions;
+
+/**
+ * Benchmarks of the whole search at fixed plies, on all positions of {@link Positions}. A score is the number of
+ * passes over the corpus per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+    /**
+     * Memory usage of transposition table of alpha-beta search
+     */
+    private static final long TABLE_BYTES = 4L * 1024 * 1024;
+    /**
+     * Maximum level of search
+     */
+    @Param({"1", "2"})
+    private int ply;
+    /**
+     * Search algorithm
+     */
+    @Param({"MINIMAX", "ALPHA_BETA"})
+    private SearchMode searchMode;
+    /**
+     * Move ordering of alpha-beta search, minimax ignores it
+     */
+    @Param({"TABLE_MOVE", "HEURISTIC"})
+    private MoveOrderingPolicy moveOrdering;
+    /**
+     * Boards of corpus positions
+     */
+    private Board[] boards;
+    /**
+     * Red and black players, red moves next in all positions
+     */
+    private Player[] players;
+    /**
+     * Transposition table of alpha-beta search
+     */
+    private TranspositionTable table;
+    /**
+     * Search under test
+     */
+    private MiniMax miniMax;
+
+    /**
+     * Creates corpus positions and the search.
+     */
+    @Setup
+    public void setUp() {
+        boards = Positions.createBoards();
+        players = Positions.createPlayers();
+        table = new TranspositionTable(TABLE_BYTES);
+        miniMax = new MiniMax(ply, players, searchMode, table);
+        miniMax.setSeed(0);
+        miniMax.setMoveOrdering(moveOrdering);
+    }
+
+    /**
+     * Clears the transposition table, so each search starts without results of previous searches.
+     */
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        table.clear();
+    }
+
+    /**
+     * Choosing a move with {@link MiniMax#run(Board, Player)} for every position.
+     *
+     * @param blackhole consumer of results
+     */
+    @Benchmark
+    public void run(Blackhole blackhole) {
+        for (Board board : boards) {
+            blackhole.consume(miniMax.run(board, players[0]));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package pentago;
+
+import org.junit.Test;
+import pentago.ai.Perft;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of {@link BitBoard} against {@link Board}
+ */
+public class BitBoardTest {
+    /**
+     * Pieces of both colors
+     */
+    private static final Piece[] PIECES = {Block.RED_PIECE, Block.BLACK_PIECE};
+
+    @Test
+    public void randomGamesMatchBoard() {
+        Random random = new Random(5);
+        for (int game = 0; game < 200; game++) {
+            Board board = new Board();
+            BitBoard bitBoard = new BitBoard();
+            for (int turn = 0; !board.isGameFinished(); turn = 1 - turn) {
+                int[] cell = board.getEmptyCells().get(random.nextInt(board.getEmptyCount()));
+                board.putPiece(PIECES[turn], cell[0], cell[1]);
+                bitBoard.putPiece(PIECES[turn], cell[0], cell[1]);
+                if (!board.hasWinner()) {
+                    int blockNumber = 1 + random.nextInt(4);
+                    Rotation rotation = random.nextBoolean() ? Rotation.CLOCKWISE : Rotation.ANTI_CLOCKWISE;
+                    board.rotate(blockNumber, rotation);
+                    bitBoard.rotate(blockNumber, rotation);
+                }
+                assertSameBoard(board, bitBoard);
+            }
+        }
+    }
+
+    @Test
+    public void perftMatchesBoardWalk() {
+        Player red = new HumanPlayer("Red");
+        red.setPiece(Block.RED_PIECE);
+        Player black = new HumanPlayer("Black");
+        black.setPiece(Block.BLACK_PIECE);
+        Board board = new Board();
+        assertEquals(21934080, Perft.perft(board, red, black, 3));
+        Random random = new Random(6);
+        for (int position = 0; position < 10; position++) {
+            board = new Board();
+            int pieces = 10 + random.nextInt(20);
+            for (int i = 0; i < pieces && !board.isGameFinished(); i++) {
+                int[] cell = board.getEmptyCells().get(random.nextInt(board.getEmptyCount()));
+                board.putPiece(PIECES[i % 2], cell[0], cell[1]);
+            }
+            Player turn = pieces % 2 == 0 ? red : black;
+            Player opponent = turn == red ? black : red;
+            assertEquals(PerftRunner.perft(board, turn.getPiece(), opponent.getPiece(), 2),
+                    Perft.perft(board, turn, opponent, 2));
+        }
+    }
+
+    /**
+     * Checks that a bitboard has the cells and wins of a board. Counts of 3 and 4 cell lines are not compared, Board
+     * does not scan some of their diagonal windows.
+     *
+     * @param board    expected board
+     * @param bitBoard bitboard to check
+     */
+    private static void assertSameBoard(Board board, BitBoard bitBoard) {
+        assertEquals(new BitBoard(board), bitBoard);
+        assertEquals(board.getEmptyMask(), bitBoard.getEmptyMask());
+        assertEquals(board.hasWinner(), bitBoard.hasWinner());
+        assertEquals(board.getWinnerPiece(), bitBoard.getWinnerPiece());
+        assertEquals(board.isGameFinished(), bitBoard.isGameFinished());
+        assertEquals(board.hasSymmetricalBlock(), bitBoard.hasSymmetricalBlock());
+        assertEquals(board.getEmptyCells().size(), bitBoard.getEmptyCells().size());
+        for (int i = 0; i < board.getEmptyCount(); i++) {
+            assertArrayEquals(board.getEmptyCells().get(i), bitBoard.getEmptyCells().get(i));
+        }
+        for (Piece piece : PIECES) {
+            assertEquals(board.get5InARows(piece), bitBoard.get5InARows(piece));
+            assertEquals(board.getPieceAtCenter(piece), bitBoard.getPieceAtCenter(piece));
+        }
+    }
+}
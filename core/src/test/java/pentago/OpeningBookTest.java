@@ -0,0 +1,148 @@
+package pentago;
+
+import org.junit.Test;
+import pentago.ai.Move;
+import pentago.ai.OpeningBook;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of writing, opening and looking up {@link OpeningBook} files
+ */
+public class OpeningBookTest {
+    /**
+     * Number of book positions
+     */
+    private static final int POSITIONS = 20;
+
+    @Test
+    public void looksUpWrittenAndMirroredPositions() throws IOException {
+        Player[] players = TestPlayers.create();
+        Random random = new Random(8);
+        int[][][] cells = new int[POSITIONS][][];
+        int[][] moves = new int[POSITIONS][];
+        OpeningBook.Writer writer = new OpeningBook.Writer();
+        for (int i = 0; i < POSITIONS; i++) {
+            // distinct cells of red and black pieces, and the cell and rotation of the book move
+            cells[i] = new int[5 + i % 2][];
+            for (int j = 0; j < cells[i].length; j++) {
+                cells[i][j] = randomEmptyCell(random, cells[i], j);
+            }
+            moves[i] = new int[]{random.nextInt(4) + 1, random.nextInt(2)};
+            writer.add(createBoard(cells[i], false), players[i % 2], createMove(cells[i], moves[i], false));
+        }
+        Path file = Files.createTempFile("opening", ".book");
+        try {
+            writer.write(file);
+            OpeningBook book = OpeningBook.open(file);
+            assertEquals(POSITIONS, book.size());
+            for (int i = 0; i < POSITIONS; i++) {
+                Player turn = players[i % 2];
+                assertEquals(createMove(cells[i], moves[i], false), book.lookup(createBoard(cells[i], false), turn));
+                assertEquals(createMove(cells[i], moves[i], true), book.lookup(createBoard(cells[i], true), turn));
+                // the other player moving next is another game state
+                assertEquals(Move.NONE, book.lookup(createBoard(cells[i], false), players[1 - i % 2]));
+            }
+            assertEquals(Move.NONE, book.lookup(new Board(), players[0]));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void openRejectsOtherFile() throws IOException {
+        Path file = Files.createTempFile("opening", ".txt");
+        try {
+            Files.write(file, "not an opening book".getBytes("UTF-8"));
+            OpeningBook.open(file);
+            fail("Opened a file that is not an opening book");
+        } catch (IOException e) {
+            assertEquals("Not an opening book file", e.getMessage());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Chooses a random cell that is not in the first cells of specified array.
+     *
+     * @param random random generator
+     * @param cells  rows and columns of cells
+     * @param count  number of used cells
+     * @return row and column of the cell
+     */
+    private static int[] randomEmptyCell(Random random, int[][] cells, int count) {
+        while (true) {
+            int[] cell = {random.nextInt(6), random.nextInt(6)};
+            boolean used = false;
+            for (int i = 0; i < count; i++) {
+                used |= cells[i][0] == cell[0] && cells[i][1] == cell[1];
+            }
+            if (!used) {
+                return cell;
+            }
+        }
+    }
+
+    /**
+     * Creates a board with pieces in all cells but the last, red and black in turn.
+     *
+     * @param cells    rows and columns of cells
+     * @param mirrored {@code true} if columns are mirrored, {@code false} otherwise
+     * @return created board
+     */
+    private static Board createBoard(int[][] cells, boolean mirrored) {
+        Board board = new Board();
+        for (int i = 0; i < cells.length - 1; i++) {
+            int column = mirrored ? 5 - cells[i][1] : cells[i][1];
+            board.putPiece(i % 2 == 0 ? Block.RED_PIECE : Block.BLACK_PIECE, getBlockNumber(cells[i][0], column),
+                    getCellNumber(cells[i][0], column));
+        }
+        return board;
+    }
+
+    /**
+     * Creates the book move that puts a piece in the last cell.
+     *
+     * @param cells    rows and columns of cells
+     * @param rotation rotated block number and 0 for clockwise or 1 for anti-clockwise rotation
+     * @param mirrored {@code true} if columns are mirrored, that also mirrors blocks and rotation directions
+     * @return packed move
+     */
+    private static int createMove(int[][] cells, int[] rotation, boolean mirrored) {
+        int row = cells[cells.length - 1][0];
+        int column = mirrored ? 5 - cells[cells.length - 1][1] : cells[cells.length - 1][1];
+        int blockNumber = mirrored ? rotation[0] + (rotation[0] % 2 == 1 ? 1 : -1) : rotation[0];
+        boolean clockwise = (rotation[1] == 0) != mirrored;
+        return Move.fromStrings(getBlockNumber(row, column) + " " + getCellNumber(row, column),
+                blockNumber + " " + (clockwise ? 'c' : 'a'));
+    }
+
+    /**
+     * Gets block number of a cell.
+     *
+     * @param row    row of board in range 0 to 5
+     * @param column column of board in range 0 to 5
+     * @return block number in range 1 to 4
+     */
+    private static int getBlockNumber(int row, int column) {
+        return row / 3 * 2 + column / 3 + 1;
+    }
+
+    /**
+     * Gets cell number of a cell in its block.
+     *
+     * @param row    row of board in range 0 to 5
+     * @param column column of board in range 0 to 5
+     * @return cell number in range 1 to 9
+     */
+    private static int getCellNumber(int row, int column) {
+        return row % 3 * 3 + column % 3 + 1;
+    }
+}
@@ -0,0 +1,72 @@
+package pentago;
+
+import org.junit.Test;
+import pentago.ai.Move;
+import pentago.ai.SearchService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Load test of {@link SearchService}, a burst of requests that is larger than the service
+ */
+public class SearchServiceLoadTest {
+    /**
+     * Number of search threads
+     */
+    private static final int THREADS = 2;
+    /**
+     * Maximum number of queued requests
+     */
+    private static final int QUEUE_CAPACITY = 6;
+    /**
+     * Number of requests of the burst
+     */
+    private static final int REQUESTS = 20;
+    /**
+     * Search level without load
+     */
+    private static final int MAX_PLY = 3;
+
+    @Test
+    public void burstIsReducedAndRejectedBeyondCapacity() throws InterruptedException {
+        Player red = new HumanPlayer("Red");
+        red.setPiece(Block.RED_PIECE);
+        Player black = new HumanPlayer("Black");
+        black.setPiece(Block.BLACK_PIECE);
+        Player[] players = {red, black};
+        Board board = new Board();
+        board.putPiece(Block.RED_PIECE, 1, 5);
+        board.putPiece(Block.BLACK_PIECE, 4, 5);
+        try (SearchService service = new SearchService(THREADS, QUEUE_CAPACITY, 8L * 1024 * 1024)) {
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                futures.add(service.chooseMove(board, players, red, MAX_PLY));
+            }
+            int searched = 0;
+            int rejected = 0;
+            for (CompletableFuture<Integer> future : futures) {
+                try {
+                    int move = future.get();
+                    assertTrue(Move.getBlockNumber(move) >= 1 && Move.getBlockNumber(move) <= 4);
+                    searched++;
+                } catch (ExecutionException e) {
+                    assertTrue(e.getCause() instanceof RejectedExecutionException);
+                    rejected++;
+                }
+            }
+            assertEquals(REQUESTS, searched + rejected);
+            assertEquals(rejected, service.getRejectedCount());
+            // the burst arrives much faster than a search, so only threads and queue are admitted
+            assertTrue(searched >= THREADS + QUEUE_CAPACITY);
+            assertTrue(rejected > 0);
+            assertTrue(service.getReducedCount() > 0);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package pentago;
+
+/**
+ * Players of tests in other packages, that can not create players
+ */
+public final class TestPlayers {
+    /**
+     * Utility class, not instantiable
+     */
+    private TestPlayers() {
+    }
+
+    /**
+     * Creates the players of a game.
+     *
+     * @return red player and black player
+     */
+    public static Player[] create() {
+        Player red = new HumanPlayer("Red");
+        red.setPiece(Block.RED_PIECE);
+        Player black = new HumanPlayer("Black");
+        black.setPiece(Block.BLACK_PIECE);
+        return new Player[]{red, black};
+    }
+}
@@ -0,0 +1,155 @@
+package pentago.ai;
+
+import org.junit.Test;
+import pentago.BitBoard;
+import pentago.Lines;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of {@link EndgameSolver} against a brute-force solver
+ */
+public class EndgameSolverTest {
+    /**
+     * Mask of all cells
+     */
+    private static final long ALL_CELLS = (1L << 36) - 1;
+    /**
+     * Number of game states with a 5-in-a-row of both colors that the brute-force solver reached
+     */
+    private int doubleFives;
+
+    @Test
+    public void matchesBruteForceOnRandomPositions() {
+        Random random = new Random(3);
+        EndgameSolver solver = new EndgameSolver(1 << 20);
+        for (int i = 0; i < 400; i++) {
+            BitBoard board = randomPosition(random, 3 + i % 4);
+            boolean redTurn = Long.bitCount(board.getRedMask()) == Long.bitCount(board.getBlackMask());
+            long mine = redTurn ? board.getRedMask() : board.getBlackMask();
+            long theirs = redTurn ? board.getBlackMask() : board.getRedMask();
+            Map<Long, Integer> cache = new HashMap<>();
+            int expected = bruteForce(mine, theirs, cache);
+            assertEquals("Position " + i, expected, solver.solve(board, redTurn));
+            if (expected != EndgameSolver.LOSS) {
+                // the best move keeps the proven result
+                long[] child = apply(mine, theirs, solver.getBestMove());
+                assertEquals("Best move of position " + i, expected, -bruteForce(child[1], child[0], cache));
+            }
+        }
+        // rotations that make a 5-in-a-row of both colors are covered
+        assertTrue(doubleFives > 0);
+    }
+
+    @Test
+    public void fiveInARowOfBothColorsIsDraw() {
+        long red = 0;
+        long black = 0;
+        for (int column = 0; column < 5; column++) {
+            red |= cell(0, column);
+            black |= cell(1, column);
+        }
+        BitBoard board = new BitBoard(red, black);
+        EndgameSolver solver = new EndgameSolver(1 << 10);
+        assertEquals(EndgameSolver.DRAW, solver.solve(board, true));
+        assertEquals(EndgameSolver.DRAW, solver.solve(board, false));
+        assertEquals(GameRecord.DRAW, GameRecord.getResult(board));
+    }
+
+    /**
+     * Solves a game state by searching all moves, with the rules of the search: the block is not rotated after a put
+     * that makes a 5-in-a-row and a 5-in-a-row of both colors is a draw.
+     *
+     * @param mine   cells of the player that moves next
+     * @param theirs cells of the opponent
+     * @param cache  results of solved game states
+     * @return result for the player that moves next
+     */
+    private int bruteForce(long mine, long theirs, Map<Long, Integer> cache) {
+        boolean won = Lines.hasFiveInARow(mine);
+        boolean lost = Lines.hasFiveInARow(theirs);
+        if (won || lost || (mine | theirs) == ALL_CELLS) {
+            if (won && lost) {
+                doubleFives++;
+            }
+            return won == lost ? EndgameSolver.DRAW : won ? EndgameSolver.WIN : EndgameSolver.LOSS;
+        }
+        // the player that moves next is known by the number of pieces, so the pair of masks is a unique key
+        long key = PositionCodec.encode(mine, theirs);
+        Integer cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        int best = EndgameSolver.LOSS;
+        for (long cells = ~(mine | theirs) & ALL_CELLS; cells != 0 && best != EndgameSolver.WIN; cells &= cells - 1) {
+            for (int rotation = 0; rotation < 8; rotation++) {
+                int move = Move.create(Long.numberOfTrailingZeros(cells), 1 + rotation / 2, rotation % 2 == 0);
+                long[] child = apply(mine, theirs, move);
+                best = Math.max(best, -bruteForce(child[1], child[0], cache));
+            }
+        }
+        cache.put(key, best);
+        return best;
+    }
+
+    /**
+     * Applies a move of the player that moves next.
+     *
+     * @param mine   cells of the player that moves next
+     * @param theirs cells of the opponent
+     * @param move   packed move
+     * @return cells of the player and of the opponent after the move
+     */
+    private static long[] apply(long mine, long theirs, int move) {
+        mine |= 1L << Move.getCellIndex(move);
+        if (!Lines.hasFiveInARow(mine) && !Lines.hasFiveInARow(theirs)) {
+            mine = BitBoard.rotate(mine, Move.getRotationBlock(move), Move.isClockwise(move));
+            theirs = BitBoard.rotate(theirs, Move.getRotationBlock(move), Move.isClockwise(move));
+        }
+        return new long[]{mine, theirs};
+    }
+
+    /**
+     * Creates an unfinished position with random pieces of both colors.
+     *
+     * @param random     random generator
+     * @param emptyCount number of empty cells
+     * @return random position
+     */
+    private static BitBoard randomPosition(Random random, int emptyCount) {
+        while (true) {
+            long red = 0;
+            long black = 0;
+            for (int i = 0; i < 36 - emptyCount; i++) {
+                long empty = ~(red | black) & ALL_CELLS;
+                for (int skip = random.nextInt(Long.bitCount(empty)); skip > 0; skip--) {
+                    empty &= empty - 1;
+                }
+                if (i % 2 == 0) {
+                    red |= Long.lowestOneBit(empty);
+                } else {
+                    black |= Long.lowestOneBit(empty);
+                }
+            }
+            if (!Lines.hasFiveInARow(red) && !Lines.hasFiveInARow(black)) {
+                return new BitBoard(red, black);
+            }
+        }
+    }
+
+    /**
+     * Gets mask of a cell in the layout of {@link BitBoard}.
+     *
+     * @param row    row of board in range 0 to 5
+     * @param column column of board in range 0 to 5
+     * @return mask of the cell
+     */
+    private static long cell(int row, int column) {
+        return 1L << (row / 3 * 2 + column / 3) * 9 + row % 3 * 3 + column % 3;
+    }
+}
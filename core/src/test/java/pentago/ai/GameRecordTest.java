@@ -0,0 +1,242 @@
+package pentago.ai;
+
+import org.junit.Test;
+import pentago.BitBoard;
+import pentago.Lines;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Round-trip tests of {@link GameRecord} files
+ */
+public class GameRecordTest {
+    /**
+     * Mask of all cells
+     */
+    private static final long ALL_CELLS = (1L << 36) - 1;
+
+    /**
+     * A game that is written and read back
+     */
+    private static class Game {
+        /**
+         * Packed start position
+         */
+        private long startPosition;
+        /**
+         * Packed moves
+         */
+        private int[] moves;
+        /**
+         * Result of the game
+         */
+        private int result;
+        /**
+         * Packed position after the last move
+         */
+        private long endPosition;
+    }
+
+    @Test
+    public void randomGamesRoundTrip() throws IOException {
+        Random random = new Random(1);
+        List<Game> games = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            games.add(randomGame(random, i % 3 == 0 ? random.nextInt(7) : 0));
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (GameRecord.Writer writer = new GameRecord.Writer(output)) {
+            for (Game game : games) {
+                writer.write(game.startPosition, game.moves, game.moves.length, game.result);
+            }
+        }
+        assertGames(games, new GameRecord.Reader(new ByteArrayInputStream(output.toByteArray())));
+    }
+
+    @Test
+    public void escapedMoveCodeRoundTrips() throws IOException {
+        // the 32nd empty cell with clockwise rotation of block 4 is code 255, the escape byte itself
+        int move = Move.create(31, 4, true);
+        assertEquals(255, PositionCodec.encodeMove(ALL_CELLS, move));
+        Game game = replay(0, new int[]{move, Move.create(0, 1, false)});
+        Game startGame = replay(PositionCodec.encode(1L << 35, 1L << 34), new int[]{Move.create(33, 4, true)});
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (GameRecord.Writer writer = new GameRecord.Writer(output)) {
+            writer.write(game.startPosition, game.moves, game.moves.length, game.result);
+            writer.write(startGame.startPosition, startGame.moves, startGame.moves.length, startGame.result);
+        }
+        List<Game> games = new ArrayList<>();
+        games.add(game);
+        games.add(startGame);
+        assertGames(games, new GameRecord.Reader(new ByteArrayInputStream(output.toByteArray())));
+    }
+
+    @Test
+    public void openAppendsToGameRecordFile() throws IOException {
+        Path file = Files.createTempFile("games", ".record");
+        try {
+            Random random = new Random(2);
+            List<Game> games = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                Game game = randomGame(random, 0);
+                games.add(game);
+                try (GameRecord.Writer writer = GameRecord.Writer.open(file)) {
+                    writer.write(game.moves, game.moves.length, game.result);
+                }
+            }
+            assertGames(games, GameRecord.Reader.open(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void openDoesNotAppendToOtherFile() throws IOException {
+        Path file = Files.createTempFile("games", ".txt");
+        try {
+            Files.write(file, "not a game record".getBytes("UTF-8"));
+            try {
+                GameRecord.Writer.open(file).close();
+                fail("Appended to a file that is not a game record");
+            } catch (IOException e) {
+                assertArrayEquals("not a game record".getBytes("UTF-8"), Files.readAllBytes(file));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Reads all games of a reader and compares them to expected games.
+     *
+     * @param games  expected games
+     * @param reader reader of written games
+     * @throws IOException if the games can not be read
+     */
+    private static void assertGames(List<Game> games, GameRecord.Reader reader) throws IOException {
+        try {
+            for (Game game : games) {
+                assertTrue(reader.next());
+                assertEquals(game.startPosition, reader.getStartPosition());
+                assertEquals(game.result, reader.getResult());
+                assertEquals(game.moves.length, reader.getMoveCount());
+                for (int i = 0; i < game.moves.length; i++) {
+                    assertEquals(game.moves[i], reader.getMove(i));
+                }
+                assertEquals(game.endPosition, reader.getEndPosition());
+            }
+            assertFalse(reader.next());
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Creates a game of random moves, that ends with a result or at a random move.
+     *
+     * @param random     random generator
+     * @param startCount number of pieces of start position
+     * @return random game
+     */
+    private static Game randomGame(Random random, int startCount) {
+        long red = 0;
+        long black = 0;
+        for (int i = 0; i < startCount; i++) {
+            long cell = randomCell(random, ~(red | black) & ALL_CELLS);
+            if (i % 2 == 0) {
+                red |= cell;
+            } else {
+                black |= cell;
+            }
+        }
+        long startPosition = PositionCodec.encode(red, black);
+        int maxMoves = random.nextInt(4) == 0 ? random.nextInt(37) : 36;
+        List<Integer> moves = new ArrayList<>();
+        while (moves.size() < maxMoves && (red | black) != ALL_CELLS
+                && !Lines.hasFiveInARow(red) && !Lines.hasFiveInARow(black)) {
+            long cell = randomCell(random, ~(red | black) & ALL_CELLS);
+            int move = Move.create(Long.numberOfTrailingZeros(cell), 1 + random.nextInt(4), random.nextBoolean());
+            moves.add(move);
+            long[] masks = apply(red, black, move);
+            red = masks[0];
+            black = masks[1];
+        }
+        int[] moveArray = new int[moves.size()];
+        for (int i = 0; i < moveArray.length; i++) {
+            moveArray[i] = moves.get(i);
+        }
+        return replay(startPosition, moveArray);
+    }
+
+    /**
+     * Replays moves from a start position and computes result and end position of the game.
+     *
+     * @param startPosition packed start position
+     * @param moves         packed moves
+     * @return game of the moves
+     */
+    private static Game replay(long startPosition, int[] moves) {
+        long red = PositionCodec.getRedMask(startPosition);
+        long black = PositionCodec.getBlackMask(startPosition);
+        for (int move : moves) {
+            long[] masks = apply(red, black, move);
+            red = masks[0];
+            black = masks[1];
+        }
+        Game game = new Game();
+        game.startPosition = startPosition;
+        game.moves = moves;
+        game.endPosition = PositionCodec.encode(red, black);
+        game.result = GameRecord.getResult(PositionCodec.decode(game.endPosition));
+        return game;
+    }
+
+    /**
+     * Applies a move, the block is not rotated after a put that makes a 5-in-a-row.
+     *
+     * @param red   cells of red pieces
+     * @param black cells of black pieces
+     * @param move  packed move
+     * @return red and black cells after the move
+     */
+    private static long[] apply(long red, long black, int move) {
+        long cell = 1L << Move.getCellIndex(move);
+        if (Long.bitCount(red) == Long.bitCount(black)) {
+            red |= cell;
+        } else {
+            black |= cell;
+        }
+        if (!Lines.hasFiveInARow(red) && !Lines.hasFiveInARow(black)) {
+            red = BitBoard.rotate(red, Move.getRotationBlock(move), Move.isClockwise(move));
+            black = BitBoard.rotate(black, Move.getRotationBlock(move), Move.isClockwise(move));
+        }
+        return new long[]{red, black};
+    }
+
+    /**
+     * Chooses a random cell of a mask.
+     *
+     * @param random random generator
+     * @param mask   mask of cells, not empty
+     * @return mask of the chosen cell
+     */
+    private static long randomCell(Random random, long mask) {
+        for (int i = random.nextInt(Long.bitCount(mask)); i > 0; i--) {
+            mask &= mask - 1;
+        }
+        return Long.lowestOneBit(mask);
+    }
+}
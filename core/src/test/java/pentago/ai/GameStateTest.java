@@ -0,0 +1,111 @@
+package pentago.ai;
+
+import org.junit.Test;
+import pentago.BitBoard;
+import pentago.Lines;
+import pentago.Player;
+import pentago.TestPlayers;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of move generation of {@link GameState}
+ */
+public class GameStateTest {
+    /**
+     * Mask of all cells
+     */
+    private static final long ALL_CELLS = (1L << 36) - 1;
+    /**
+     * Level of compared searches
+     */
+    private static final int DEPTH = 2;
+
+    @Test
+    public void distinctMovesKeepBestScoreOfRandomPositions() {
+        Random random = new Random(7);
+        for (int position = 0; position < 20; position++) {
+            long red = 0;
+            long black = 0;
+            int pieces = 4 + random.nextInt(20);
+            for (int i = 0; i < pieces; i++) {
+                long empty = ~(red | black) & ALL_CELLS;
+                for (int skip = random.nextInt(Long.bitCount(empty)); skip > 0; skip--) {
+                    empty &= empty - 1;
+                }
+                if (i % 2 == 0) {
+                    red |= Long.lowestOneBit(empty);
+                } else {
+                    black |= Long.lowestOneBit(empty);
+                }
+            }
+            if (!Lines.hasFiveInARow(red) && !Lines.hasFiveInARow(black)) {
+                assertSameBestScore(new BitBoard(red, black));
+            }
+        }
+    }
+
+    @Test
+    public void distinctMovesKeepBestScoreOfSymmetricPositions() {
+        // empty board, pieces at block centers and a board that is symmetric about its diagonal
+        BitBoard[] boards = {new BitBoard(), new BitBoard(1L << 4 | 1L << 31, 1L << 13 | 1L << 22),
+                new BitBoard(1L | 1L << 35, 1L << 8 | 1L << 27)};
+        for (BitBoard board : boards) {
+            int distinctCount = assertSameBestScore(board);
+            assertTrue(distinctCount < Long.bitCount(board.getEmptyMask()) * 8 / 2);
+        }
+    }
+
+    /**
+     * Checks that searching distinct moves gives the best score of searching all moves.
+     *
+     * @param board position to search, red moves next if both colors have the same number of pieces
+     * @return number of distinct moves of the position
+     */
+    private static int assertSameBestScore(BitBoard board) {
+        Player[] players = TestPlayers.create();
+        boolean redTurn = Long.bitCount(board.getRedMask()) == Long.bitCount(board.getBlackMask());
+        Player turn = players[redTurn ? 0 : 1];
+        Player opponent = players[redTurn ? 1 : 0];
+        GameState gameState = new GameState(board, true, turn, opponent, WeightedEvaluator.DEFAULT);
+        int[][] buffers = new int[DEPTH][Move.MAX_MOVES];
+        int allCount = gameState.generateMoves(buffers[0]);
+        int distinctCount = gameState.generateDistinctMoves(buffers[0]);
+        assertTrue(distinctCount <= allCount);
+        assertEquals(search(gameState, DEPTH, false, turn, opponent, buffers),
+                search(gameState, DEPTH, true, turn, opponent, buffers));
+        return distinctCount;
+    }
+
+    /**
+     * Minimax search of a game state to a fixed level.
+     *
+     * @param gameState game state to search
+     * @param depth     remaining levels of search
+     * @param distinct  {@code true} if only distinct moves are searched, {@code false} if all moves are searched
+     * @param player    player that scores are computed for, the max player
+     * @param opponent  opponent of player
+     * @param buffers   move buffers, one for each level
+     * @return score of game state
+     */
+    private static int search(GameState gameState, int depth, boolean distinct, Player player, Player opponent,
+                              int[][] buffers) {
+        if (depth == 0 || gameState.isGameOver()) {
+            return gameState.computeScore(player, opponent);
+        }
+        int[] moves = buffers[DEPTH - depth];
+        int count = distinct ? gameState.generateDistinctMoves(moves) : gameState.generateMoves(moves);
+        boolean maxPlayer = gameState.isMaxPlayer();
+        int best = maxPlayer ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            gameState.apply(moves[i]);
+            int score = search(gameState, depth - 1, distinct, player, opponent, buffers);
+            gameState.undo(moves[i]);
+            best = maxPlayer ? Math.max(best, score) : Math.min(best, score);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,104 @@
+package pentago.ai;
+
+import org.junit.Test;
+import pentago.BitBoard;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of packing positions and moves with {@link PositionCodec}
+ */
+public class PositionCodecTest {
+    /**
+     * Mask of all 36 cells
+     */
+    private static final long ALL_CELLS = (1L << 36) - 1;
+
+    @Test
+    public void decodeRestoresEncodedPosition() {
+        Random random = new Random(20);
+        for (int i = 0; i < 1000; i++) {
+            long red = random.nextLong() & ALL_CELLS;
+            long black = random.nextLong() & ALL_CELLS & ~red;
+            assertRoundTrip(red, black);
+        }
+        assertEquals(0, PositionCodec.encode(0, 0));
+        assertRoundTrip(0, 0);
+        assertRoundTrip(ALL_CELLS, 0);
+        assertRoundTrip(0, ALL_CELLS);
+        assertRoundTrip(0x555555555L, ALL_CELLS & ~0x555555555L);
+    }
+
+    @Test
+    public void encodeKeepsCellOrder() {
+        // each cell is a base 3 digit, so a position with any higher cell filled is greater
+        for (int cell = 0; cell < 35; cell++) {
+            long lowerCells = (1L << cell + 1) - 1;
+            assertTrue(PositionCodec.encode(0, lowerCells) < PositionCodec.encode(1L << cell + 1, 0));
+        }
+        assertEquals(2 * PositionCodec.encode(1L << 17, 0), PositionCodec.encode(0, 1L << 17));
+    }
+
+    @Test
+    public void decodeRejectsInvalidPosition() {
+        long[] invalid = {-1, PositionCodec.encode(0, ALL_CELLS) + 1, Long.MAX_VALUE};
+        for (long position : invalid) {
+            try {
+                PositionCodec.decode(position);
+                fail("Decoded invalid position " + position);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void decodeMoveRestoresEncodedMove() {
+        Random random = new Random(21);
+        for (int i = 0; i < 100; i++) {
+            long emptyMask = random.nextLong() & ALL_CELLS;
+            int emptyCount = Long.bitCount(emptyMask);
+            int codes = 0;
+            for (int cellIndex = 0; cellIndex < 36; cellIndex++) {
+                if ((emptyMask & 1L << cellIndex) == 0) {
+                    continue;
+                }
+                // rotation direction is the highest bit of a code, above rotation block
+                for (boolean clockwise : new boolean[]{false, true}) {
+                    for (int rotationBlock = 1; rotationBlock <= 4; rotationBlock++) {
+                        int move = Move.create(cellIndex, rotationBlock, clockwise);
+                        int code = PositionCodec.encodeMove(emptyMask, move);
+                        assertEquals(codes++, code);
+                        assertEquals(move, PositionCodec.decodeMove(emptyMask, code));
+                    }
+                }
+            }
+            assertEquals(emptyCount * 8, codes);
+            try {
+                PositionCodec.decodeMove(emptyMask, codes);
+                fail("Decoded move code out of range");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    /**
+     * Checks that a position is restored by encoding and decoding, by both encode methods.
+     *
+     * @param red   mask of red cells
+     * @param black mask of black cells
+     */
+    private static void assertRoundTrip(long red, long black) {
+        BitBoard board = new BitBoard(red, black);
+        long position = PositionCodec.encode(board);
+        assertEquals(position, PositionCodec.encode(red, black));
+        assertEquals(board, PositionCodec.decode(position));
+        assertEquals(red, PositionCodec.getRedMask(position));
+        assertEquals(black, PositionCodec.getBlackMask(position));
+    }
+}
@@ -0,0 +1,58 @@
+package pentago.ai;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * Tests of generations of {@link TranspositionTable}
+ */
+public class TranspositionTableTest {
+    /**
+     * Memory of a table with a single bucket, so all hashes share it
+     */
+    private static final long BUCKET_BYTES = 64;
+
+    @Test
+    public void privateTableStartsGenerationForEachSearch() {
+        TranspositionTable table = new TranspositionTable(BUCKET_BYTES);
+        assertNotEquals(table.newSearch(), table.newSearch());
+    }
+
+    @Test
+    public void sharedTableStartsGenerationOnlyForEachEpoch() {
+        TranspositionTable table = new TranspositionTable(BUCKET_BYTES, true);
+        int generation = table.newSearch();
+        assertEquals(generation, table.newSearch());
+        table.newEpoch();
+        assertNotEquals(generation, table.newSearch());
+    }
+
+    @Test
+    public void sharedTableKeepsEntriesOfRunningSearches() {
+        TranspositionTable table = new TranspositionTable(BUCKET_BYTES, true);
+        int first = table.newSearch();
+        table.store(1, 5, TranspositionTable.EXACT, 10, Move.NONE, first);
+        // a search that starts later fills the bucket with shallow entries
+        int second = table.newSearch();
+        for (long hash = 2; hash <= 5; hash++) {
+            table.store(hash, 1, TranspositionTable.EXACT, 0, Move.NONE, second);
+        }
+        long entry = table.probe(1);
+        assertNotEquals(0, entry);
+        assertEquals(5, TranspositionTable.getDepth(entry));
+        assertEquals(10, TranspositionTable.getScore(entry));
+    }
+
+    @Test
+    public void privateTableReplacesEntriesOfOlderSearches() {
+        TranspositionTable table = new TranspositionTable(BUCKET_BYTES);
+        table.store(1, 5, TranspositionTable.EXACT, 10, Move.NONE, table.newSearch());
+        int generation = table.newSearch();
+        for (long hash = 2; hash <= 5; hash++) {
+            table.store(hash, 1, TranspositionTable.EXACT, 0, Move.NONE, generation);
+        }
+        assertEquals(0, table.probe(1));
+    }
+}
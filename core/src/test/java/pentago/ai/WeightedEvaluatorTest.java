@@ -0,0 +1,55 @@
+package pentago.ai;
+
+import org.junit.Test;
+
+import java.util.Properties;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of {@link WeightedEvaluator}
+ */
+public class WeightedEvaluatorTest {
+    /**
+     * Number of random positions
+     */
+    private static final int COUNT = 1000;
+
+    @Test
+    public void batchMatchesSingleWithDefaultWeights() {
+        assertBatchMatchesSingle(WeightedEvaluator.DEFAULT);
+    }
+
+    @Test
+    public void batchMatchesSingleWithOptionalFeatures() {
+        Properties properties = new Properties();
+        properties.setProperty(EvaluationFeature.OPEN_FOUR.getKey(), "500");
+        properties.setProperty(EvaluationFeature.OPEN_THREE.getKey(), "50");
+        properties.setProperty(EvaluationFeature.ROTATION_THREAT.getKey(), "300");
+        assertBatchMatchesSingle(new WeightedEvaluator(properties));
+    }
+
+    /**
+     * Scores random positions in a batch and one by one, and checks that scores are equal and antisymmetric.
+     *
+     * @param evaluator evaluator to check
+     */
+    private static void assertBatchMatchesSingle(WeightedEvaluator evaluator) {
+        Random random = new Random(4);
+        long[] playerMasks = new long[COUNT];
+        long[] opponentMasks = new long[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            long cells = random.nextLong() & (1L << 36) - 1;
+            long colors = random.nextLong();
+            playerMasks[i] = cells & colors;
+            opponentMasks[i] = cells & ~colors;
+        }
+        int[] scores = new int[COUNT];
+        evaluator.evaluate(playerMasks, opponentMasks, COUNT, scores);
+        for (int i = 0; i < COUNT; i++) {
+            assertEquals(evaluator.evaluate(playerMasks[i], opponentMasks[i]), scores[i]);
+            assertEquals(-scores[i], evaluator.evaluate(opponentMasks[i], playerMasks[i]));
+        }
+    }
+}
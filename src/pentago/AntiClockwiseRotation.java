@@ -1,23 +1,38 @@
 package pentago;
 
 /**
- * Anti-clockwise rotation simulator class.
+ * Anti-clockwise rotation simulator class, see {@link Rotation#ANTI_CLOCKWISE}.
  */
 public class AntiClockwiseRotation implements Rotation {
     /**
-     * Rotates given array of cells as block state anti-clockwise and returns resulting array.
+     * Source cell of each cell, cell {@code [i][j]} gets the cell {@code [j][2 - i]}
+     */
+    private static final int[] SOURCE_CELLS = {2, 5, 8, 1, 4, 7, 0, 3, 6};
+
+    /**
+     * Constructor of the singleton anti-clockwise rotation
+     */
+    AntiClockwiseRotation() {
+    }
+
+    /**
+     * Gets the cell that moves to specified cell by anti-clockwise rotation.
+     *
+     * @param cell cell index in range 0 to 8
+     * @return index of source cell
+     */
+    @Override
+    public int getSourceCell(int cell) {
+        return SOURCE_CELLS[cell];
+    }
+
+    /**
+     * Checks direction of this rotation.
      *
-     * @param blockState array of cells as block state
-     * @return result of rotation
+     * @return {@code false}
      */
     @Override
-    public Cell[][] rotate(Cell[][] blockState) {
-        Cell[][] blockStateTemp = new Cell[3][3];
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j <= 2; j++) {
-                blockStateTemp[i][j] = blockState[j][2 - i];
-            }
-        }
-        return blockStateTemp;
+    public boolean isClockwise() {
+        return false;
     }
 }
@@ -0,0 +1,364 @@
+package pentago;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bitboard representation of pentago game board. The state of each color is kept in a single {@code long} that uses
+ * 36 bits, one per cell. Bits are ordered block by block, so cell {@code c} (1 to 9) of block {@code b} (1 to 4) is
+ * bit {@code (b - 1) * 9 + (c - 1)}. With this layout a block is a contiguous 9 bit group and a rotation is a table
+ * lookup, and line checks are mask operations with the tables of {@link Lines}.
+ * <br>
+ * It offers the same operations as {@link Board} that the Minimax decision rule needs, and a board can be converted
+ * to a bitboard using {@link BitBoard#BitBoard(Board)}.
+ */
+public class BitBoard {
+    /**
+     * Mask of a single block (9 bits)
+     */
+    static final int BLOCK_MASK = 0x1FF;
+    /**
+     * Mask of all 36 cells of the board
+     */
+    static final long FULL_MASK = (1L << 36) - 1;
+    /**
+     * Result of clockwise rotation for every possible 9 bit block state
+     */
+    private static final int[] CLOCKWISE = new int[512];
+    /**
+     * Result of anti-clockwise rotation for every possible 9 bit block state
+     */
+    private static final int[] ANTI_CLOCKWISE = new int[512];
+
+    static {
+        for (int state = 0; state < 512; state++) {
+            for (int i = 0; i < 3; i++) {
+                for (int j = 0; j < 3; j++) {
+                    // same mapping as ClockwiseRotation and AntiClockwiseRotation
+                    if ((state & (1 << ((2 - j) * 3 + i))) != 0) {
+                        CLOCKWISE[state] |= 1 << (i * 3 + j);
+                    }
+                    if ((state & (1 << (j * 3 + 2 - i))) != 0) {
+                        ANTI_CLOCKWISE[state] |= 1 << (i * 3 + j);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Cells filled by red pieces
+     */
+    private long red;
+    /**
+     * Cells filled by black pieces
+     */
+    private long black;
+
+    /**
+     * Constructor of bitboard that initializes all cells to be empty.
+     */
+    public BitBoard() {
+    }
+
+    /**
+     * Copy constructor of bitboard
+     *
+     * @param board bitboard to copy
+     */
+    public BitBoard(BitBoard board) {
+        this.red = board.red;
+        this.black = board.black;
+    }
+
+    /**
+     * Constructor of bitboard with specified cells of each color.
+     *
+     * @param red   mask of cells filled by red pieces
+     * @param black mask of cells filled by black pieces
+     */
+    public BitBoard(long red, long black) {
+        this.red = red;
+        this.black = black;
+    }
+
+    /**
+     * Constructor that converts a board to bitboard.
+     *
+     * @param board board to convert
+     */
+    public BitBoard(Board board) {
+        this.red = board.getMask(Block.RED_PIECE);
+        this.black = board.getMask(Block.BLACK_PIECE);
+    }
+
+    /**
+     * Converts block and cell number to bit index.
+     *
+     * @param blockNumber block number in range 1 to 4
+     * @param cellNumber  cell number in range 1 to 9
+     * @return bit index of the cell
+     */
+    static int getCellIndex(int blockNumber, int cellNumber) {
+        return (blockNumber - 1) * 9 + cellNumber - 1;
+    }
+
+    /**
+     * Gets cells filled by specified piece color.
+     *
+     * @param piece piece color
+     * @return mask of all cells filled by piece
+     */
+    public long getMask(Piece piece) {
+        return isRed(piece) ? red : black;
+    }
+
+    /**
+     * Gets cells filled by red pieces.
+     *
+     * @return mask of all cells filled by red pieces
+     */
+    public long getRedMask() {
+        return red;
+    }
+
+    /**
+     * Gets cells filled by black pieces.
+     *
+     * @return mask of all cells filled by black pieces
+     */
+    public long getBlackMask() {
+        return black;
+    }
+
+    /**
+     * Checks if specified piece is red.
+     *
+     * @param piece piece to check
+     * @return {@code true} if piece is red, {@code false} if it is black
+     */
+    public static boolean isRed(Piece piece) {
+        return piece == Piece.RED;
+    }
+
+    /**
+     * Gets all empty cells.
+     *
+     * @return mask of all empty cells
+     */
+    public long getEmptyMask() {
+        return ~(red | black) & FULL_MASK;
+    }
+
+    /**
+     * Checks the validity of putting a piece in block and cell determined by block and cell numbers.
+     *
+     * @param blockNumber block number to check
+     * @param cellNumber  cell number in block to check
+     * @return {@code true} if the move is invalid, {@code false} otherwise
+     */
+    boolean isInvalidMove(int blockNumber, int cellNumber) {
+        return ((red | black) & (1L << getCellIndex(blockNumber, cellNumber))) != 0;
+    }
+
+    /**
+     * Applying a move by putting specified piece in specified cell of specified block.
+     *
+     * @param piece       piece to put
+     * @param blockNumber block number to put piece
+     * @param cellNumber  cell number in block to put piece
+     */
+    public void putPiece(Piece piece, int blockNumber, int cellNumber) {
+        putPiece(piece, getCellIndex(blockNumber, cellNumber));
+    }
+
+    /**
+     * Applying a move by putting specified piece in cell determined by bit index.
+     *
+     * @param piece     piece to put
+     * @param cellIndex bit index of cell, see {@link BitBoard}
+     */
+    public void putPiece(Piece piece, int cellIndex) {
+        if (isRed(piece)) {
+            red |= 1L << cellIndex;
+        } else {
+            black |= 1L << cellIndex;
+        }
+    }
+
+    /**
+     * Removes the piece of cell determined by bit index and makes it empty.
+     *
+     * @param cellIndex bit index of cell, see {@link BitBoard}
+     */
+    public void removePiece(int cellIndex) {
+        red &= ~(1L << cellIndex);
+        black &= ~(1L << cellIndex);
+    }
+
+    /**
+     * Rotates specified block with specified rotation.
+     *
+     * @param blockNumber block to rotate
+     * @param rotation    rotation
+     */
+    public void rotate(int blockNumber, Rotation rotation) {
+        rotate(blockNumber, rotation.isClockwise());
+    }
+
+    /**
+     * Rotates specified block in specified direction.
+     *
+     * @param blockNumber block to rotate
+     * @param clockwise   {@code true} if the rotation is clockwise, {@code false} otherwise
+     */
+    public void rotate(int blockNumber, boolean clockwise) {
+        red = rotate(red, blockNumber, clockwise);
+        black = rotate(black, blockNumber, clockwise);
+    }
+
+    /**
+     * Rotates specified block of a cell mask in specified direction.
+     *
+     * @param mask        cell mask in the layout of bitboard
+     * @param blockNumber block to rotate
+     * @param clockwise   {@code true} if the rotation is clockwise, {@code false} otherwise
+     * @return rotated cell mask
+     */
+    public static long rotate(long mask, int blockNumber, boolean clockwise) {
+        int shift = (blockNumber - 1) * 9;
+        int[] table = clockwise ? CLOCKWISE : ANTI_CLOCKWISE;
+        return (mask & ~((long) BLOCK_MASK << shift)) | (long) table[(int) (mask >>> shift) & BLOCK_MASK] << shift;
+    }
+
+    /**
+     * Checks if current state of board has a winner that is a 5-in-a-row. A 5-in-a-row is state that 5 pieces with
+     * same color was in a sequence in vertical, horizontal or diagonal direction.
+     *
+     * @return {@code true} if the game has winner, {@code false} otherwise
+     */
+    public boolean hasWinner() {
+        return Lines.hasFiveInARow(red) || Lines.hasFiveInARow(black);
+    }
+
+    /**
+     * Gets winner piece of board or {@code null} if there is no winner, even game not finished or tie state. A
+     * 5-in-a-row of both colors after a rotation is a tie.
+     *
+     * @return piece color of winner or null if winner does not exist
+     */
+    Piece getWinnerPiece() {
+        boolean redWon = Lines.hasFiveInARow(red);
+        if (redWon == Lines.hasFiveInARow(black)) {
+            return null;
+        }
+        return redWon ? Block.RED_PIECE : Block.BLACK_PIECE;
+    }
+
+    /**
+     * Checks if the game finished, even by winning or tie.
+     *
+     * @return {@code true} if the finished, {@code false} otherwise
+     */
+    public boolean isGameFinished() {
+        return (red | black) == FULL_MASK || hasWinner();
+    }
+
+    /**
+     * Checks if current game state has at least one symmetric block. A symmetric block is a block that if rotates
+     * in both clockwise and anti-clockwise directions will not change.
+     *
+     * @return {@code true} if current game state has at least one symmetric block, {@code false} otherwise
+     */
+    boolean hasSymmetricalBlock() {
+        for (int blockNumber = 1; blockNumber <= 4; blockNumber++) {
+            if (isSymmetric(blockNumber)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if specified block is symmetric. See {@link BitBoard#hasSymmetricalBlock()}.
+     *
+     * @param blockNumber block to check
+     * @return {@code true} if the block is symmetric, {@code false} otherwise
+     */
+    boolean isSymmetric(int blockNumber) {
+        int shift = (blockNumber - 1) * 9;
+        int redBlock = (int) (red >>> shift) & BLOCK_MASK;
+        int blackBlock = (int) (black >>> shift) & BLOCK_MASK;
+        return CLOCKWISE[redBlock] == redBlock && CLOCKWISE[blackBlock] == blackBlock;
+    }
+
+    /**
+     * Gets block number and cell number of all empty cells in game board.
+     *
+     * @return list of all empty block and cell numbers
+     */
+    public List<int[]> getEmptyCells() {
+        List<int[]> result = new ArrayList<>();
+        long empty = getEmptyMask();
+        while (empty != 0) {
+            int index = Long.numberOfTrailingZeros(empty);
+            result.add(new int[]{index / 9 + 1, index % 9 + 1});
+            empty &= empty - 1;
+        }
+        return result;
+    }
+
+    /**
+     * Gets number of all 5-in-a-rows in game board. See {@link Board#get5InARows(Piece)}.
+     *
+     * @param piece piece color to check
+     * @return 1 if piece has a 5-in-a-row, 0 otherwise
+     */
+    public int get5InARows(Piece piece) {
+        return Lines.hasFiveInARow(getMask(piece)) ? 1 : 0;
+    }
+
+    /**
+     * Gets number of all 4-in-a-rows in game board. Every 4 cell line filled by piece is counted, so a 5-in-a-row
+     * contains two 4-in-a-rows.
+     *
+     * @param piece piece color to check
+     * @return all 4-in-a-row count
+     */
+    public int get4InARows(Piece piece) {
+        return Lines.countLines(getMask(piece), Lines.FOUR_LINES);
+    }
+
+    /**
+     * Gets number of all 3-in-a-rows in game board. Every 3 cell line filled by piece is counted.
+     *
+     * @param piece piece color to check
+     * @return all 3-in-a-row count
+     */
+    public int get3InARows(Piece piece) {
+        return Lines.countLines(getMask(piece), Lines.THREE_LINES);
+    }
+
+    /**
+     * Gets all piece count that was not located at edges of the board.
+     *
+     * @param piece piece color to check
+     * @return all piece at center of board
+     */
+    public int getPieceAtCenter(Piece piece) {
+        return Long.bitCount(getMask(piece) & Lines.CENTER_MASK);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BitBoard board = (BitBoard) o;
+        return red == board.red && black == board.black;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(red * 31 + black);
+    }
+}
@@ -2,34 +2,33 @@ package pentago;
 
 
 import java.util.ArrayList;
-import java.util.List;
 
 /**
- * A block in pentago game
+ * A block in pentago game. Cells are kept in a flat array of 9 piece codes in row order, see {@link Piece#getCode()},
+ * so line checks are reads of contiguous memory.
  */
 class Block {
     /**
      * White piece state of block cell
      */
-    final static Piece RED_PIECE = new RedPiece();
+    final static Piece RED_PIECE = Piece.RED;
     /**
      * Black piece state of block cell
      */
-    final static Piece BLACK_PIECE = new BlackPiece();
+    final static Piece BLACK_PIECE = Piece.BLACK;
     /**
-     * An 3 by 3 array that keeps current block state
+     * Piece codes of the 9 cells that keeps current block state, cell {@code [i][j]} is index {@code i * 3 + j}
      */
-    private Cell[][] blockState = new Cell[3][3];
+    private byte[] blockState = new byte[9];
+    /**
+     * Number of empty cells, rotation does not change it
+     */
+    private int emptyCount = 9;
 
     /**
      * Constructor of block that initializes block state to all cells be empty.
      */
     Block() {
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                blockState[i][j] = new Cell();
-            }
-        }
     }
 
     /**
@@ -38,11 +37,8 @@ class Block {
      * @param block block to copy
      */
     Block(Block block) {
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                blockState[i][j] = new Cell(block.blockState[i][j]);
-            }
-        }
+        blockState = block.blockState.clone();
+        emptyCount = block.emptyCount;
     }
 
     /**
@@ -52,14 +48,14 @@ class Block {
      * @return string representation of the row
      */
     String getRowString(int row) {
-        String rowString = "";
+        StringBuilder rowString = new StringBuilder();
         if (row >= 0 && row < 3) {
             for (int i = 0; i < 3; i++) {
-                Cell currentItem = blockState[row][i];
-                rowString = (rowString + currentItem.toString());
+                Piece piece = Piece.fromCode(blockState[row * 3 + i]);
+                rowString.append(piece == null ? " ○ " : " " + piece + " ");
             }
         }
-        return rowString;
+        return rowString.toString();
     }
 
     /**
@@ -70,29 +66,19 @@ class Block {
      * @return {@code true} if the move is valid, {@code false} otherwise
      */
     boolean isInvalidMove(int cellNumber) {
-        int[] cellIndex = getCellIndex(cellNumber);
-        return !blockState[cellIndex[0]][cellIndex[1]].isEmpty();
+        return blockState[cellNumber - 1] != Piece.EMPTY;
     }
 
     /**
-     * Converts cell number to cell row and column index.
+     * Checks if cell of specified row and column is filled by specified piece.
      *
-     * @param cellNumber cell number
-     * @return an array with two members, 0 index indicates computed row and 1 index indicates computed column
+     * @param piece  piece to check
+     * @param row    row index of cell
+     * @param column column index of cell
+     * @return {@code true} if the cell is filled by piece, {@code false} otherwise
      */
-    private int[] getCellIndex(int cellNumber) {
-        int counter = 0;
-        int[] result = new int[2];
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                counter++;
-                if (cellNumber == counter) {
-                    result[0] = i;
-                    result[1] = j;
-                }
-            }
-        }
-        return result;
+    private boolean has(Piece piece, int row, int column) {
+        return blockState[row * 3 + column] == piece.getCode();
     }
 
     /**
@@ -102,8 +88,10 @@ class Block {
      * @param cellNumber cell number to put piece
      */
     void putPieceInBlock(Piece piece, int cellNumber) {
-        int[] cellIndex = getCellIndex(cellNumber);
-        blockState[cellIndex[0]][cellIndex[1]].putPiece(piece);
+        if (blockState[cellNumber - 1] == Piece.EMPTY) {
+            emptyCount--;
+        }
+        blockState[cellNumber - 1] = piece.getCode();
     }
 
     /**
@@ -114,8 +102,25 @@ class Block {
      * @return {@code true} if specified cell filled by specified piece, {@code false} otherwise
      */
     boolean isCellInBlockExists(Piece piece, int cellNumber) {
-        int[] cellIndex = getCellIndex(cellNumber);
-        return blockState[cellIndex[0]][cellIndex[1]].isSameColor(piece);
+        return blockState[cellNumber - 1] == piece.getCode();
+    }
+
+    /**
+     * Gets cells of block that filled by specified piece as a 9 bit mask. Bit {@code n - 1} of the mask determines
+     * cell number {@code n}.
+     *
+     * @param piece piece to check
+     * @return mask of cells filled by piece
+     */
+    int getMask(Piece piece) {
+        int mask = 0;
+        byte code = piece.getCode();
+        for (int i = 0; i < 9; i++) {
+            if (blockState[i] == code) {
+                mask |= 1 << i;
+            }
+        }
+        return mask;
     }
 
     /**
@@ -129,7 +134,7 @@ class Block {
         int countPiece = 0;
         for (int i = 0; i < 3; i++) {
             for (int j = 0; j < 3; j++) {
-                if (blockState[i][j].isSameColor(piece)) {
+                if (has(piece, i, j)) {
                     countPiece++;
                 }
             }
@@ -152,7 +157,7 @@ class Block {
         int countPiece = 0;
         for (int i = 0; i < 3; i++) {
             for (int j = 0; j < 3; j++) {
-                if (blockState[j][i].isSameColor(piece)) {
+                if (has(piece, j, i)) {
                     countPiece++;
                 }
             }
@@ -175,7 +180,7 @@ class Block {
     boolean has2CellsInRowWithColorFromBeginning(Piece piece, int index) {
         int count = 0;
         for (int i = 0; i < 2; i++) {
-            if (blockState[index][i].isSameColor(piece)) {
+            if (has(piece, index, i)) {
                 count++;
             }
         }
@@ -193,7 +198,7 @@ class Block {
     boolean has2CellsInRowWithColorFromEnd(Piece piece, int index) {
         int count = 0;
         for (int i = 1; i < 3; i++) {
-            if (blockState[index][i].isSameColor(piece)) {
+            if (has(piece, index, i)) {
                 count++;
             }
         }
@@ -211,7 +216,7 @@ class Block {
     boolean has2CellsInColumnWithColorFromBeginning(Piece piece, int index) {
         int count = 0;
         for (int i = 0; i < 2; i++) {
-            if (blockState[i][index].isSameColor(piece)) {
+            if (has(piece, i, index)) {
                 count++;
             }
         }
@@ -229,7 +234,7 @@ class Block {
     boolean has2CellsInColumnWithColorFromEnd(Piece piece, int index) {
         int count = 0;
         for (int i = 1; i < 3; i++) {
-            if (blockState[i][index].isSameColor(piece)) {
+            if (has(piece, i, index)) {
                 count++;
             }
         }
@@ -245,7 +250,7 @@ class Block {
     boolean hasMainDiameterFull(Piece piece) {
         int countPiece = 0;
         for (int i = 0; i < 3; i++) {
-            if (blockState[i][i].isSameColor(piece)) {
+            if (has(piece, i, i)) {
                 countPiece++;
             }
         }
@@ -261,7 +266,7 @@ class Block {
     boolean hasSecondaryDiameterFull(Piece piece) {
         int countPiece = 0;
         for (int i = 0; i < 3; i++) {
-            if (blockState[i][2 - i].isSameColor(piece)) {
+            if (has(piece, i, 2 - i)) {
                 countPiece++;
             }
         }
@@ -278,7 +283,7 @@ class Block {
     boolean has2CellsInMainDiameterWithColorFromBeginning(Piece piece) {
         int count = 0;
         for (int i = 0; i < 2; i++) {
-            if (blockState[i][i].isSameColor(piece)) {
+            if (has(piece, i, i)) {
                 count++;
             }
         }
@@ -295,7 +300,7 @@ class Block {
     boolean has2CellsInMainDiameterWithColorFromEnd(Piece piece) {
         int count = 0;
         for (int i = 1; i < 3; i++) {
-            if (blockState[i][i].isSameColor(piece)) {
+            if (has(piece, i, i)) {
                 count++;
             }
         }
@@ -312,7 +317,7 @@ class Block {
     boolean has2CellsInSecondaryDiameterWithColorFromBeginning(Piece piece) {
         int count = 0;
         for (int i = 0; i < 2; i++) {
-            if (blockState[i][2 - i].isSameColor(piece)) {
+            if (has(piece, i, 2 - i)) {
                 count++;
             }
         }
@@ -329,7 +334,7 @@ class Block {
     boolean has2CellsInSecondaryDiameterWithColorFromEnd(Piece piece) {
         int count = 0;
         for (int i = 0; i < 2; i++) {
-            if (blockState[i][2 - i].isSameColor(piece)) {
+            if (has(piece, i, 2 - i)) {
                 count++;
             }
         }
@@ -343,7 +348,7 @@ class Block {
      * @return {@code true} if under main diameter of block fully has specified piece color, {@code false} otherwise
      */
     boolean hasUnderMainDiameterFull(Piece piece) {
-        return blockState[1][0].isSameColor(piece) && blockState[2][1].isSameColor(piece);
+        return has(piece, 1, 0) && has(piece, 2, 1);
     }
 
     /**
@@ -353,7 +358,7 @@ class Block {
      * @return {@code true} if above main diameter of block fully has specified piece color, {@code false} otherwise
      */
     boolean hasAboveMainDiameterFull(Piece piece) {
-        return blockState[0][1].isSameColor(piece) && blockState[1][2].isSameColor(piece);
+        return has(piece, 0, 1) && has(piece, 1, 2);
     }
 
     /**
@@ -363,7 +368,7 @@ class Block {
      * @return {@code true} if under secondary diameter of block fully has specified piece color, {@code false} otherwise
      */
     boolean hasUnderSecondaryDiameterFull(Piece piece) {
-        return blockState[1][2].isSameColor(piece) && blockState[2][1].isSameColor(piece);
+        return has(piece, 1, 2) && has(piece, 2, 1);
     }
 
     /**
@@ -373,7 +378,7 @@ class Block {
      * @return {@code true} if above secondary diameter of block fully has specified piece color, {@code false} otherwise
      */
     boolean hasAboveSecondaryDiameterFull(Piece piece) {
-        return blockState[0][1].isSameColor(piece) && blockState[1][0].isSameColor(piece);
+        return has(piece, 0, 1) && has(piece, 1, 0);
     }
 
     /**
@@ -382,7 +387,7 @@ class Block {
      * @param rotation rotation that should be done
      */
     void rotate(Rotation rotation) {
-        blockState = rotation.rotate(blockState);
+        rotation.rotate(blockState);
     }
 
     /**
@@ -391,15 +396,16 @@ class Block {
      * @return {@code true} if cell has any empty cells, {@code false} otherwise
      */
     boolean hasEmpty() {
-        boolean empty = false;
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                if (blockState[i][j].isEmpty()) {
-                    empty = true;
-                }
-            }
-        }
-        return empty;
+        return emptyCount != 0;
+    }
+
+    /**
+     * Gets number of empty cells of block.
+     *
+     * @return number of empty cells
+     */
+    int getEmptyCount() {
+        return emptyCount;
     }
 
     /**
@@ -409,26 +415,24 @@ class Block {
      * @return {@code true} if the block is symmetric, {@code false} otherwise
      */
     boolean isSymmetric() {
-        return blockState[0][0].equals(blockState[0][2]) && blockState[0][2].equals(blockState[2][2]) && blockState[2][2].equals(blockState[2][0])
-                && blockState[0][1].equals(blockState[1][2]) && blockState[1][2].equals(blockState[2][1]) && blockState[2][1].equals(blockState[1][0]);
+        return blockState[0] == blockState[2] && blockState[2] == blockState[8] && blockState[8] == blockState[6]
+                && blockState[1] == blockState[5] && blockState[5] == blockState[7] && blockState[7] == blockState[3];
     }
 
     /**
-     * Gets all empty cell numbers in block.
+     * Gets empty cells of block as a 9 bit mask. Bit {@code n - 1} of the mask determines cell number {@code n}.
      *
-     * @return a list of all empty cell numbers
+     * @return mask of empty cells
      */
-    List<Integer> getEmptyCells() {
-        List<Integer> result = new ArrayList<>();
-        int counter = 1;
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                if (blockState[i][j].isEmpty()) {
-                    result.add(counter);
+    int getEmptyMask() {
+        int mask = 0;
+        if (emptyCount != 0) {
+            for (int i = 0; i < 9; i++) {
+                if (blockState[i] == Piece.EMPTY) {
+                    mask |= 1 << i;
                 }
-                counter++;
             }
         }
-        return result;
+        return mask;
     }
 }
@@ -62,29 +62,33 @@ public class Board {
      * @return {@code true} if the move is valid, {@code false} otherwise
      */
     boolean isInvalidMove(int blockNumber, int cellNumber) {
-        int[] blockIndex = getBlockIndex(blockNumber);
-        return blocks[blockIndex[0]][blockIndex[1]].isInvalidMove(cellNumber);
+        return getBlock(blockNumber).isInvalidMove(cellNumber);
     }
 
     /**
-     * Converts block number to cell row and column index.
+     * Gets block determined by block number.
      *
-     * @param blockNumber block number
-     * @return an array with two members, 0 index indicates computed row and 1 index indicates computed column
+     * @param blockNumber block number in range 1 to 4
+     * @return the block
      */
-    private int[] getBlockIndex(int blockNumber) {
-        int[] result = new int[2];
-        int counter = 0;
+    private Block getBlock(int blockNumber) {
+        return blocks[(blockNumber - 1) / 2][(blockNumber - 1) % 2];
+    }
+
+    /**
+     * Gets cells of board that filled by specified piece as a 36 bit mask in the layout of {@link BitBoard}.
+     *
+     * @param piece piece to check
+     * @return mask of cells filled by piece
+     */
+    long getMask(Piece piece) {
+        long mask = 0;
         for (int i = 0; i < 2; i++) {
             for (int j = 0; j < 2; j++) {
-                counter++;
-                if (blockNumber == counter) {
-                    result[0] = i;
-                    result[1] = j;
-                }
+                mask |= (long) blocks[i][j].getMask(piece) << ((i * 2 + j) * 9);
             }
         }
-        return result;
+        return mask;
     }
 
     /**
@@ -95,8 +99,7 @@ public class Board {
      * @param cellNumber  cell number in block to put piece
      */
     public void putPiece(Piece piece, int blockNumber, int cellNumber) {
-        int[] blockIndex = getBlockIndex(blockNumber);
-        blocks[blockIndex[0]][blockIndex[1]].putPieceInBlock(piece, cellNumber);
+        getBlock(blockNumber).putPieceInBlock(piece, cellNumber);
     }
 
     /**
@@ -110,140 +113,29 @@ public class Board {
     }
 
     /**
-     * Gets winner piece of board or {@code null} if there is no winner, even game not finished or tie state.
+     * Gets winner piece of board or {@code null} if there is no winner, even game not finished or tie state. A
+     * 5-in-a-row of both colors after a rotation is a tie.
      *
      * @return piece color of winner or null if winner does not exist
      */
     Piece getWinnerPiece() {
-        if (isColorWon(Block.RED_PIECE)) {
-            return Block.RED_PIECE;
+        boolean redWon = isColorWon(Block.RED_PIECE);
+        if (redWon == isColorWon(Block.BLACK_PIECE)) {
+            return null;
         }
-        if (isColorWon(Block.BLACK_PIECE)) {
-            return Block.BLACK_PIECE;
-        }
-        return null;
+        return redWon ? Block.RED_PIECE : Block.BLACK_PIECE;
     }
 
     /**
      * Checks if specified piece won that is a 5-in-a-row. A 5-in-a-row is state that 5 pieces with same color was in a
-     * sequence in vertical, horizontal or diagonal direction.
+     * sequence in vertical, horizontal or diagonal direction. It checks the cells of piece against all precomputed
+     * lines of {@link Lines#FIVE_LINES}.
      *
      * @param piece piece that win checks
      * @return {@code true} Checks if specified piece won, {@code false} otherwise
      */
     private boolean isColorWon(Piece piece) {
-        return checkRowWin(piece) || checkColumnWin(piece) || checkDiagonalWin(piece);
-    }
-
-    /**
-     * Checks piece win state in diagonal direction.
-     *
-     * @param piece piece that win checks
-     * @return {@code true} Checks if specified piece won in diagonal direction, {@code false} otherwise
-     */
-    private boolean checkDiagonalWin(Piece piece) {
-        if (blocks[0][0].hasMainDiameterFull(piece) && blocks[1][1].has2CellsInMainDiameterWithColorFromBeginning(piece)) {
-            return true;
-        }
-        if (blocks[0][1].hasSecondaryDiameterFull(piece) && blocks[1][0].has2CellsInSecondaryDiameterWithColorFromBeginning(piece)) {
-            return true;
-        }
-        if (blocks[1][0].hasSecondaryDiameterFull(piece) && blocks[0][1].has2CellsInSecondaryDiameterWithColorFromEnd(piece)) {
-            return true;
-        }
-        if (blocks[1][1].hasMainDiameterFull(piece) && blocks[0][0].has2CellsInMainDiameterWithColorFromEnd(piece)) {
-            return true;
-        }
-        if (blocks[0][0].hasUnderMainDiameterFull(piece)
-                && blocks[1][0].isCellInBlockExists(piece, 3)
-                && blocks[1][1].hasUnderMainDiameterFull(piece)) {
-            return true;
-        }
-        if (blocks[0][0].hasAboveMainDiameterFull(piece)
-                && blocks[0][1].isCellInBlockExists(piece, 7)
-                && blocks[1][1].hasAboveMainDiameterFull(piece)) {
-            return true;
-        }
-        if (blocks[0][1].hasUnderSecondaryDiameterFull(piece)
-                && blocks[1][1].isCellInBlockExists(piece, 1)
-                && blocks[1][0].hasAboveSecondaryDiameterFull(piece)) {
-            return true;
-        }
-        if (blocks[0][1].hasAboveSecondaryDiameterFull(piece)
-                && blocks[0][0].isCellInBlockExists(piece, 7)
-                && blocks[1][0].hasAboveSecondaryDiameterFull(piece)) {
-            return true;
-        }
-        return false;
-    }
-
-    /**
-     * Checks piece win state in column direction.
-     *
-     * @param piece piece that win checks
-     * @return {@code true} Checks if specified piece won in column direction, {@code false} otherwise
-     */
-    private boolean checkColumnWin(Piece piece) {
-        ArrayList<Integer> indexes;
-        indexes = blocks[0][0].getFullColumns(piece);
-        for (Integer index : indexes) {
-            if (blocks[1][0].has2CellsInColumnWithColorFromBeginning(piece, index)) {
-                return true;
-            }
-        }
-        indexes = blocks[0][1].getFullColumns(piece);
-        for (Integer index : indexes) {
-            if (blocks[1][1].has2CellsInColumnWithColorFromBeginning(piece, index)) {
-                return true;
-            }
-        }
-        indexes = blocks[1][0].getFullColumns(piece);
-        for (Integer index : indexes) {
-            if (blocks[0][0].has2CellsInColumnWithColorFromEnd(piece, index)) {
-                return true;
-            }
-        }
-        indexes = blocks[1][1].getFullColumns(piece);
-        for (Integer index : indexes) {
-            if (blocks[0][1].has2CellsInColumnWithColorFromEnd(piece, index)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    /**
-     * Checks piece win state in row direction.
-     *
-     * @param piece piece that win checks
-     * @return {@code true} Checks if specified piece won in row direction, {@code false} otherwise
-     */
-    private boolean checkRowWin(Piece piece) {
-        ArrayList<Integer> indexes = blocks[0][0].getFullRows(piece);
-        for (Integer index : indexes) {
-            if (blocks[0][1].has2CellsInRowWithColorFromBeginning(piece, index)) {
-                return true;
-            }
-        }
-        indexes = blocks[0][1].getFullRows(piece);
-        for (Integer index : indexes) {
-            if (blocks[0][0].has2CellsInRowWithColorFromEnd(piece, index)) {
-                return true;
-            }
-        }
-        indexes = blocks[1][0].getFullRows(piece);
-        for (Integer index : indexes) {
-            if (blocks[1][1].has2CellsInRowWithColorFromBeginning(piece, index)) {
-                return true;
-            }
-        }
-        indexes = blocks[1][1].getFullRows(piece);
-        for (Integer index : indexes) {
-            if (blocks[1][0].has2CellsInRowWithColorFromEnd(piece, index)) {
-                return true;
-            }
-        }
-        return false;
+        return Lines.hasFiveInARow(getMask(piece));
     }
 
     /**
@@ -253,8 +145,7 @@ public class Board {
      * @param rotation   rotation
      */
     public void rotate(int blockIndex, Rotation rotation) {
-        int[] block = getBlockIndex(blockIndex);
-        blocks[block[0]][block[1]].rotate(rotation);
+        getBlock(blockIndex).rotate(rotation);
     }
 
     /**
@@ -282,6 +173,52 @@ public class Board {
         return !hasWinner();
     }
 
+    /**
+     * Gets number of empty cells in game board. Blocks keep their number of empty cells, so it does not scan cells.
+     *
+     * @return number of empty cells
+     */
+    public int getEmptyCount() {
+        int count = 0;
+        for (int i = 0; i < 2; i++) {
+            for (int j = 0; j < 2; j++) {
+                count += blocks[i][j].getEmptyCount();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets all empty cells of board as a 36 bit mask in the layout of {@link BitBoard}. Empty cells can be iterated
+     * without allocation by taking the lowest set bit of the mask, see {@link #getEmptyCells(int[])}.
+     *
+     * @return mask of all empty cells
+     */
+    public long getEmptyMask() {
+        long mask = 0;
+        for (int i = 0; i < 2; i++) {
+            for (int j = 0; j < 2; j++) {
+                mask |= (long) blocks[i][j].getEmptyMask() << ((i * 2 + j) * 9);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Fills specified buffer with bit indexes of all empty cells, see {@link BitBoard}. Block number of bit index
+     * {@code i} is {@code i / 9 + 1} and its cell number is {@code i % 9 + 1}.
+     *
+     * @param cells buffer of at least 36 elements to fill
+     * @return number of empty cells
+     */
+    public int getEmptyCells(int[] cells) {
+        int count = 0;
+        for (long empty = getEmptyMask(); empty != 0; empty &= empty - 1) {
+            cells[count++] = Long.numberOfTrailingZeros(empty);
+        }
+        return count;
+    }
+
     /**
      * Checks if current game state has at least one symmetric block. A symmetric block is a block that if rotates
      * in both clockwise and anti-clockwise directions will not change.
@@ -300,23 +237,16 @@ public class Board {
     }
 
     /**
-     * Gets block number and cell number of all empty cells in game board.
+     * Gets block number and cell number of all empty cells in game board. It allocates an array for each cell, see
+     * {@link #getEmptyMask()} and {@link #getEmptyCells(int[])} for allocation free alternatives.
      *
      * @return list of all empty block and cell numbers
      */
     public List<int[]> getEmptyCells() {
         List<int[]> result = new ArrayList<>();
-        int[] emptyCell;
-        int counter = 1;
-        for (int i = 0; i < 2; i++) {
-            for (int j = 0; j < 2; j++) {
-                List<Integer> emptyCellsOfBlock = blocks[i][j].getEmptyCells();
-                for (int emptyCellNum : emptyCellsOfBlock) {
-                    emptyCell = new int[]{counter, emptyCellNum};
-                    result.add(emptyCell);
-                }
-                counter++;
-            }
+        for (long empty = getEmptyMask(); empty != 0; empty &= empty - 1) {
+            int index = Long.numberOfTrailingZeros(empty);
+            result.add(new int[]{index / 9 + 1, index % 9 + 1});
         }
         return result;
     }
@@ -606,32 +536,6 @@ public class Board {
      * @return all piece at center of board
      */
     public int getPieceAtCenter(Piece piece) {
-        int counter = 0;
-        int[] nums;
-        nums = new int[]{5, 6, 8, 9};
-        for (int num : nums) {
-            if (blocks[0][0].isCellInBlockExists(piece, num)) {
-                counter++;
-            }
-        }
-        nums = new int[]{4, 5, 7, 8};
-        for (int num : nums) {
-            if (blocks[0][1].isCellInBlockExists(piece, num)) {
-                counter++;
-            }
-        }
-        nums = new int[]{2, 3, 5, 6};
-        for (int num : nums) {
-            if (blocks[1][0].isCellInBlockExists(piece, num)) {
-                counter++;
-            }
-        }
-        nums = new int[]{1, 2, 4, 5};
-        for (int num : nums) {
-            if (blocks[1][1].isCellInBlockExists(piece, num)) {
-                counter++;
-            }
-        }
-        return counter;
+        return Long.bitCount(getMask(piece) & Lines.CENTER_MASK);
     }
 }
\ No newline at end of file
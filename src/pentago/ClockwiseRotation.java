@@ -1,23 +1,38 @@
 package pentago;
 
 /**
- * Anti-clockwise rotation simulator class.
+ * Clockwise rotation simulator class, see {@link Rotation#CLOCKWISE}.
  */
 public class ClockwiseRotation implements Rotation {
     /**
-     * Rotates given array of cells as block state clockwise and returns resulting array.
+     * Source cell of each cell, cell {@code [i][j]} gets the cell {@code [2 - j][i]}
+     */
+    private static final int[] SOURCE_CELLS = {6, 3, 0, 7, 4, 1, 8, 5, 2};
+
+    /**
+     * Constructor of the singleton clockwise rotation
+     */
+    ClockwiseRotation() {
+    }
+
+    /**
+     * Gets the cell that moves to specified cell by clockwise rotation.
+     *
+     * @param cell cell index in range 0 to 8
+     * @return index of source cell
+     */
+    @Override
+    public int getSourceCell(int cell) {
+        return SOURCE_CELLS[cell];
+    }
+
+    /**
+     * Checks direction of this rotation.
      *
-     * @param blockState array of cells as block state
-     * @return result of rotation
+     * @return {@code true}
      */
     @Override
-    public Cell[][] rotate(Cell[][] blockState) {
-        Cell[][] blockStateTemp = new Cell[3][3];
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                blockStateTemp[i][j] = blockState[2 - j][i];
-            }
-        }
-        return blockStateTemp;
+    public boolean isClockwise() {
+        return true;
     }
 }
@@ -1,6 +1,9 @@
 package pentago;
 
 import pentago.ai.MiniMax;
+import pentago.ai.Move;
+
+import java.time.Duration;
 
 /**
  * Determines a semi-intelligent computer player that can choose its next move and rotation based on Minimax decision rule.
@@ -8,6 +11,10 @@ import pentago.ai.MiniMax;
  * see <a href="https://en.wikipedia.org/wiki/Minimax">https://en.wikipedia.org/wiki/Minimax</a>
  */
 class ComputerPlayer extends Player {
+    /**
+     * Maximum time of pondering when moves are chosen in a specified time
+     */
+    private static final Duration MAX_PONDER_TIME = Duration.ofSeconds(30);
     /**
      * The pentago game board
      */
@@ -22,6 +29,14 @@ class ComputerPlayer extends Player {
      * Next chosen rotation
      */
     private String nextRotation;
+    /**
+     * Time that choosing a move can take, or {@code null} for searching to maximum level of Minimax
+     */
+    private Duration moveTime;
+    /**
+     * Determines if the player searches while opponent thinks
+     */
+    private boolean pondering;
 
     /**
      * Constructor that initializes player.
@@ -37,6 +52,28 @@ class ComputerPlayer extends Player {
         this.miniMax = miniMax;
     }
 
+    /**
+     * Constructor that initializes player that chooses each move in specified time.
+     *
+     * @param board    The pentago game board
+     * @param miniMax  Minimax decision rule
+     * @param moveTime time that choosing a move can take
+     * @see MiniMax#chooseMove(Board, Player, Duration)
+     */
+    ComputerPlayer(Board board, MiniMax miniMax, Duration moveTime) {
+        this(board, miniMax);
+        this.moveTime = moveTime;
+    }
+
+    /**
+     * Sets if the player searches while opponent thinks, see {@link MiniMax#startPondering(Board, Player, int)}.
+     *
+     * @param pondering {@code true} for searching while opponent thinks, {@code false} otherwise
+     */
+    void setPondering(boolean pondering) {
+        this.pondering = pondering;
+    }
+
     /**
      * Chooses the best move and rotation from available moves to be used as the current move of computer player in play to computer
      * game mode.<br>
@@ -48,10 +85,26 @@ class ComputerPlayer extends Player {
      */
     @Override
     String getNextMove() {
-        String[] moveStrings = miniMax.run(board, this);
-        nextRotation = moveStrings[1];
-        System.out.println(moveStrings[0]);
-        return moveStrings[0];
+        int move = moveTime == null ? miniMax.chooseMove(board, this) : miniMax.chooseMove(board, this, moveTime);
+        if (pondering) {
+            if (moveTime == null) {
+                miniMax.startPondering(board, this, move);
+            } else {
+                miniMax.startPondering(board, this, move, MAX_PONDER_TIME);
+            }
+        }
+        String moveString = Move.toMoveString(move);
+        nextRotation = Move.toRotationString(move);
+        System.out.println(moveString);
+        return moveString;
+    }
+
+    /**
+     * Stops pondering when the game finishes.
+     */
+    @Override
+    void endGame() {
+        miniMax.stopPondering();
     }
 
     /**
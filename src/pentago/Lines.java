@@ -0,0 +1,155 @@
+package pentago;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Precomputed line tables of the pentago game board. Each line is a 36 bit mask in the layout of {@link BitBoard},
+ * so checking a line for a color is a single mask operation. Both {@link Board} and {@link BitBoard} use these tables.
+ */
+public final class Lines {
+    /**
+     * Cells that are not located at edges of the board, the 4 by 4 square in the middle
+     */
+    static final long CENTER_MASK;
+    /**
+     * All 32 five cell lines of the board in row, column and diagonal directions
+     */
+    static final long[] FIVE_LINES;
+    /**
+     * All 4 cell lines of the board in row, column and diagonal directions
+     */
+    static final long[] FOUR_LINES;
+    /**
+     * All 3 cell lines of the board in row, column and diagonal directions
+     */
+    static final long[] THREE_LINES;
+
+    static {
+        long center = 0;
+        for (int row = 1; row < 5; row++) {
+            for (int column = 1; column < 5; column++) {
+                center |= 1L << getBitIndex(row, column);
+            }
+        }
+        CENTER_MASK = center;
+        FIVE_LINES = createLines(5);
+        FOUR_LINES = createLines(4);
+        THREE_LINES = createLines(3);
+    }
+
+    /**
+     * Utility class, not instantiable
+     */
+    private Lines() {
+    }
+
+    /**
+     * Converts row and column of the 6 by 6 board to bit index.
+     *
+     * @param row    row index in range 0 to 5
+     * @param column column index in range 0 to 5
+     * @return bit index of the cell
+     */
+    static int getBitIndex(int row, int column) {
+        int block = (row / 3) * 2 + column / 3;
+        int cell = (row % 3) * 3 + column % 3;
+        return block * 9 + cell;
+    }
+
+    /**
+     * Creates masks of all lines with specified length in row, column and both diagonal directions.
+     *
+     * @param length line length
+     * @return masks of all lines
+     */
+    private static long[] createLines(int length) {
+        int[][] directions = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+        List<Long> lines = new ArrayList<>();
+        for (int[] direction : directions) {
+            for (int row = 0; row < 6; row++) {
+                for (int column = 0; column < 6; column++) {
+                    int endRow = row + direction[0] * (length - 1);
+                    int endColumn = column + direction[1] * (length - 1);
+                    if (endRow < 0 || endRow > 5 || endColumn < 0 || endColumn > 5) {
+                        continue;
+                    }
+                    long line = 0;
+                    for (int i = 0; i < length; i++) {
+                        line |= 1L << getBitIndex(row + direction[0] * i, column + direction[1] * i);
+                    }
+                    lines.add(line);
+                }
+            }
+        }
+        long[] result = new long[lines.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = lines.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Gets masks of all lines with specified length.
+     *
+     * @param length line length in range 3 to 5
+     * @return copy of masks of all lines
+     */
+    public static long[] getLines(int length) {
+        switch (length) {
+            case 5:
+                return FIVE_LINES.clone();
+            case 4:
+                return FOUR_LINES.clone();
+            case 3:
+                return THREE_LINES.clone();
+            default:
+                throw new IllegalArgumentException("Invalid line length: " + length);
+        }
+    }
+
+    /**
+     * Gets cells that are not located at edges of the board.
+     *
+     * @return mask of the 4 by 4 square in the middle
+     */
+    public static long getCenterMask() {
+        return CENTER_MASK;
+    }
+
+    /**
+     * Checks if specified cells contain a 5-in-a-row.
+     *
+     * @param mask cells of one color
+     * @return {@code true} if cells contain a 5-in-a-row, {@code false} otherwise
+     */
+    public static boolean hasFiveInARow(long mask) {
+        // a 5-in-a-row needs at least 5 pieces
+        if (Long.bitCount(mask) < 5) {
+            return false;
+        }
+        for (long line : FIVE_LINES) {
+            if ((mask & line) == line) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Counts lines that are fully filled by specified cells.
+     *
+     * @param mask  cells of one color
+     * @param lines lines to check
+     * @return number of full lines
+     */
+    static int countLines(long mask, long[] lines) {
+        int counter = 0;
+        for (long line : lines) {
+            if ((mask & line) == line) {
+                counter++;
+            }
+        }
+        return counter;
+    }
+}
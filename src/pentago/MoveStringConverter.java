@@ -38,7 +38,7 @@ public class MoveStringConverter {
     /**
      * Computes rotation from input rotation string. The input string format is "B R" that 'B' part is block number
      * in range 1 to 4 and 'R ' part is even 'c' for clockwise rotation or 'a' for anti-clockwise rotation. Computed
-     * rotation is an object that performs rotation at desired direction.
+     * rotation is one of the singletons {@link Rotation#CLOCKWISE} and {@link Rotation#ANTI_CLOCKWISE}.
      *
      * @param nextMove rotation string
      * @return computed rotation object
@@ -46,9 +46,9 @@ public class MoveStringConverter {
      */
     public static Rotation getRotationFromRotationString(String nextMove) {
         if (nextMove.charAt(2) == 'c') {
-            return new ClockwiseRotation();
+            return Rotation.CLOCKWISE;
         }
-        return new AntiClockwiseRotation();
+        return Rotation.ANTI_CLOCKWISE;
     }
 
     /**
@@ -0,0 +1,113 @@
+package pentago;
+
+import pentago.ai.MiniMax;
+import pentago.ai.OpeningBook;
+import pentago.ai.SearchMode;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Command line tool that builds an {@link OpeningBook}. It searches every game state that can be reached in fewer
+ * moves than the book depth from the empty board with alpha-beta search, and writes the best moves to a book file.
+ * Symmetric game states are searched once. Red moves first.
+ * <br>
+ * Usage: {@code OpeningBookBuilder [-ply N] [-threads N] <depth> <file>}, where {@code -ply} is the search level of
+ * each game state, 3 by default, for example {@code OpeningBookBuilder -ply 4 2 opening.book}.
+ */
+public class OpeningBookBuilder {
+    /**
+     * Utility class, not instantiable
+     */
+    private OpeningBookBuilder() {
+    }
+
+    /**
+     * The main method of opening book tool.
+     *
+     * @param args program arguments
+     * @throws IOException if the book file can not be written
+     */
+    public static void main(String[] args) throws IOException {
+        int ply = 3;
+        int threads = 1;
+        int argIndex = 0;
+        for (; argIndex + 1 < args.length && args[argIndex].startsWith("-"); argIndex += 2) {
+            switch (args[argIndex]) {
+                case "-ply":
+                    ply = Integer.parseInt(args[argIndex + 1]);
+                    break;
+                case "-threads":
+                    threads = Integer.parseInt(args[argIndex + 1]);
+                    break;
+                default:
+                    argIndex = args.length;
+            }
+        }
+        if (args.length - argIndex != 2) {
+            System.out.println("Usage: OpeningBookBuilder [-ply N] [-threads N] <depth> <file>");
+            return;
+        }
+        int depth = Integer.parseInt(args[argIndex]);
+        Player red = new HumanPlayer("Red");
+        red.setPiece(Block.RED_PIECE);
+        Player black = new HumanPlayer("Black");
+        black.setPiece(Block.BLACK_PIECE);
+        Player[] players = {red, black};
+        MiniMax miniMax = new MiniMax(ply, players, SearchMode.ALPHA_BETA);
+        miniMax.setParallelism(threads);
+        miniMax.setSeed(0);
+        OpeningBook.Writer writer = new OpeningBook.Writer();
+        List<Board> level = new ArrayList<>();
+        level.add(new Board());
+        long start = System.nanoTime();
+        for (int moves = 0; moves < depth && !level.isEmpty(); moves++) {
+            Player turn = players[moves % 2];
+            for (Board board : level) {
+                writer.add(board, turn, miniMax.chooseMove(board, turn));
+            }
+            System.out.printf("level %d: %d game states, %d s%n", moves, level.size(),
+                    (System.nanoTime() - start) / 1000000000L);
+            if (moves + 1 < depth) {
+                level = expand(level, turn, players[(moves + 1) % 2]);
+            }
+        }
+        writer.write(Paths.get(args[argIndex + 1]));
+        System.out.println(writer.size() + " moves written to " + args[argIndex + 1]);
+    }
+
+    /**
+     * Finds all children of specified boards that are not finished, one board of each group of symmetric children.
+     *
+     * @param level    boards to expand
+     * @param turn     player that moves in the boards
+     * @param opponent opponent of the player, that moves in the children
+     * @return children of the boards
+     */
+    private static List<Board> expand(List<Board> level, Player turn, Player opponent) {
+        List<Board> children = new ArrayList<>();
+        Set<Long> keys = new HashSet<>();
+        for (Board board : level) {
+            for (long empty = board.getEmptyMask(); empty != 0; empty &= empty - 1) {
+                int cellIndex = Long.numberOfTrailingZeros(empty);
+                for (int rotationBlock = 1; rotationBlock <= 4; rotationBlock++) {
+                    for (Rotation rotation : new Rotation[]{Rotation.CLOCKWISE, Rotation.ANTI_CLOCKWISE}) {
+                        Board child = new Board(board);
+                        child.putPiece(turn.getPiece(), cellIndex / 9 + 1, cellIndex % 9 + 1);
+                        if (!child.hasWinner()) {
+                            child.rotate(rotationBlock, rotation);
+                        }
+                        if (!child.isGameFinished() && keys.add(OpeningBook.getKey(child, opponent))) {
+                            children.add(child);
+                        }
+                    }
+                }
+            }
+        }
+        return children;
+    }
+}
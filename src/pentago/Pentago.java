@@ -1,7 +1,14 @@
 package pentago;
 
 import pentago.ai.MiniMax;
+import pentago.ai.OpeningBook;
+import pentago.ai.SearchMode;
+import pentago.ai.WeightedEvaluator;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Random;
 import java.util.Scanner;
 
@@ -9,6 +16,14 @@ import java.util.Scanner;
  * The pentago game class that performs the pentago game.
  */
 public class Pentago {
+    /**
+     * Opening book file of computer player, it is used if it exists in working directory
+     */
+    private static final Path OPENING_BOOK_FILE = Paths.get("opening.book");
+    /**
+     * Weight file of evaluation function of computer player, it is used if it exists in working directory
+     */
+    private static final Path EVALUATOR_FILE = Paths.get("evaluator.properties");
     /**
      * The board of the game, all movements and rules will be applied to this board.
      */
@@ -82,12 +97,29 @@ public class Pentago {
 
     /**
      * Performs two player game mode that is playing human to computer. The player1 will be human player
-     * and the player2 will be computer player.
+     * and the player2 will be computer player, that searches while human player thinks and plays moves of opening
+     * book file if it exists. Its evaluation function uses the weights of evaluator file if it exists.
      */
     private void playHumanToComputer() {
         players[0] = new HumanPlayer("Player1");
-        MiniMax miniMax = new MiniMax(2, players);
-        players[1] = new ComputerPlayer(board, miniMax);
+        MiniMax miniMax = new MiniMax(3, players, SearchMode.ALPHA_BETA);
+        if (Files.exists(OPENING_BOOK_FILE)) {
+            try {
+                miniMax.setOpeningBook(OpeningBook.open(OPENING_BOOK_FILE));
+            } catch (IOException e) {
+                System.out.println("Can't read opening book: " + e.getMessage());
+            }
+        }
+        if (Files.exists(EVALUATOR_FILE)) {
+            try {
+                miniMax.setEvaluator(WeightedEvaluator.load(EVALUATOR_FILE));
+            } catch (IOException e) {
+                System.out.println("Can't read evaluator weights: " + e.getMessage());
+            }
+        }
+        ComputerPlayer computerPlayer = new ComputerPlayer(board, miniMax);
+        computerPlayer.setPondering(true);
+        players[1] = computerPlayer;
         doPlaying();
     }
 
@@ -141,6 +173,9 @@ public class Pentago {
                 changeTurn();
             }
         }
+        for (Player player : players) {
+            player.endGame();
+        }
     }
 
     /**
@@ -181,15 +216,16 @@ public class Pentago {
     }
 
     /**
-     * This method determines the winner or tie state and prints the game results.
+     * This method determines the winner or tie state and prints the game results. A 5-in-a-row of both colors is a
+     * tie, the same as {@link pentago.ai.EndgameSolver} and {@link pentago.ai.GameRecord#getResult(BitBoard)}.
      */
     private void printGameResult() {
         Piece winnerPiece = board.getWinnerPiece();
         if (winnerPiece == null) {
             System.out.println("Tie!!");
-        } else if (winnerPiece.equals(players[0].getPiece())) {
+        } else if (winnerPiece == players[0].getPiece()) {
             System.out.println(players[0].toString() + " Wins");
-        } else if (winnerPiece.equals(players[1].getPiece())) {
+        } else if (winnerPiece == players[1].getPiece()) {
             System.out.println(players[1].toString() + " Wins");
         } else {
             System.out.println("Tie!!");
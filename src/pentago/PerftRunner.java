@@ -0,0 +1,102 @@
+package pentago;
+
+import pentago.ai.Perft;
+
+/**
+ * Command line tool that runs {@link Perft} for depths 1 to a maximum depth and prints node counts, time and nodes per
+ * second. With {@code -check} it also counts nodes by a reference walk over {@link Board}, that copies the board for
+ * every child, and reports if both counts match.
+ * <br>
+ * Usage: {@code PerftRunner [-check] <depth> [move rotation]...}, where moves and rotations are in the format of the
+ * game, for example {@code PerftRunner -check 3 "1 5" "2 c" "4 1" "3 a"}. Red moves first.
+ */
+public class PerftRunner {
+    /**
+     * Utility class, not instantiable
+     */
+    private PerftRunner() {
+    }
+
+    /**
+     * The main method of perft tool.
+     *
+     * @param args program arguments
+     */
+    public static void main(String[] args) {
+        int argIndex = 0;
+        boolean check = args.length > 0 && args[0].equals("-check");
+        if (check) {
+            argIndex++;
+        }
+        if (args.length <= argIndex || (args.length - argIndex - 1) % 2 != 0) {
+            System.out.println("Usage: PerftRunner [-check] <depth> [move rotation]...");
+            return;
+        }
+        int maxDepth = Integer.parseInt(args[argIndex++]);
+        Player red = new HumanPlayer("Red");
+        red.setPiece(Block.RED_PIECE);
+        Player black = new HumanPlayer("Black");
+        black.setPiece(Block.BLACK_PIECE);
+        Player turn = red;
+        Player opponent = black;
+        Board board = new Board();
+        for (; argIndex < args.length; argIndex += 2) {
+            int[] indexes = MoveStringConverter.convertNextMoveToBoardNumber(args[argIndex]);
+            board.putPiece(turn.getPiece(), indexes[0], indexes[1]);
+            if (!board.hasWinner()) {
+                board.rotate(MoveStringConverter.getBlockNumberFromRotationString(args[argIndex + 1]),
+                        MoveStringConverter.getRotationFromRotationString(args[argIndex + 1]));
+            }
+            Player temp = turn;
+            turn = opponent;
+            opponent = temp;
+        }
+        board.printBoard();
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            long start = System.nanoTime();
+            long nodes = Perft.perft(board, turn, opponent, depth);
+            long time = System.nanoTime() - start;
+            String line = String.format("depth %d: %d nodes, %d ms, %.0f nodes/s", depth, nodes, time / 1000000,
+                    nodes * 1e9 / Math.max(time, 1));
+            if (check) {
+                long referenceNodes = perft(board, turn.getPiece(), opponent.getPiece(), depth);
+                line += referenceNodes == nodes ? ", reference matches" : ", reference " + referenceNodes + " MISMATCH";
+            }
+            System.out.println(line);
+        }
+    }
+
+    /**
+     * Counts leaf nodes of move tree of specified board to specified depth with board copies. It follows the rules of
+     * {@link Perft}.
+     *
+     * @param board    board to start from
+     * @param turn     piece that moves first
+     * @param opponent piece of opponent
+     * @param depth    depth of move tree
+     * @return number of leaf nodes
+     */
+    static long perft(Board board, Piece turn, Piece opponent, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        if (board.isGameFinished()) {
+            return 0;
+        }
+        long nodes = 0;
+        for (long empty = board.getEmptyMask(); empty != 0; empty &= empty - 1) {
+            int cellIndex = Long.numberOfTrailingZeros(empty);
+            for (int blockNumber = 1; blockNumber <= 4; blockNumber++) {
+                for (Rotation rotation : new Rotation[]{Rotation.CLOCKWISE, Rotation.ANTI_CLOCKWISE}) {
+                    Board child = new Board(board);
+                    child.putPiece(turn, cellIndex / 9 + 1, cellIndex % 9 + 1);
+                    if (!child.hasWinner()) {
+                        child.rotate(blockNumber, rotation);
+                    }
+                    nodes += perft(child, opponent, turn, depth - 1);
+                }
+            }
+        }
+        return nodes;
+    }
+}
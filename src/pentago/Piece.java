@@ -1,21 +1,69 @@
 package pentago;
 
 /**
- * Determines a piece.
+ * Determines a piece. Pieces are the constants of this enum, so they are compared by identity, and each piece has a
+ * byte code that cells of a {@link Block} keep, 0 being an empty cell.
  */
-interface Piece {
+enum Piece {
     /**
-     * Specifies the string presentation of a piece.
+     * Red piece
+     */
+    RED((byte) 1, "\033[0;31m●\033[0m"),
+    /**
+     * Black piece
+     */
+    BLACK((byte) 2, "●");
+
+    /**
+     * Code of empty cells
+     */
+    static final byte EMPTY = 0;
+    /**
+     * Code of the piece in cells
+     */
+    private final byte code;
+    /**
+     * String presentation of the piece
+     */
+    private final String text;
+
+    /**
+     * Constructor of piece
      *
-     * @return string presentation of a piece
+     * @param code code of the piece in cells
+     * @param text string presentation of the piece
+     */
+    Piece(byte code, String text) {
+        this.code = code;
+        this.text = text;
+    }
+
+    /**
+     * Gets code of the piece in cells.
+     *
+     * @return code of the piece, 1 for red and 2 for black
      */
-    String toString();
+    byte getCode() {
+        return code;
+    }
 
     /**
-     * Checks if current piece is equals to input piece. The logic is checking equality of classes of pieces.
+     * Gets the piece of specified cell code.
      *
-     * @param obj input piece to check equality
-     * @return {@code true} if pieces are equal, {@code false} otherwise
+     * @param code cell code
+     * @return the piece, or {@code null} for an empty cell
+     */
+    static Piece fromCode(byte code) {
+        return code == EMPTY ? null : code == 1 ? RED : BLACK;
+    }
+
+    /**
+     * Specifies the string presentation of a piece.
+     *
+     * @return string presentation of a piece
      */
-    boolean equals(Object obj);
+    @Override
+    public String toString() {
+        return text;
+    }
 }
@@ -54,6 +54,12 @@ public abstract class Player {
      */
     abstract String getNextRotation();
 
+    /**
+     * Notifies player that the game finished, so it can release its resources.
+     */
+    void endGame() {
+    }
+
     /**
      * Gets display string of the player.
      *
@@ -1,14 +1,52 @@
 package pentago;
 
 /**
- * Rotation class that simulates a rotation.
+ * Rotation class that simulates a rotation. A rotation is a permutation of the 9 cells of a block, that is kept as a
+ * lookup table and applied in place, so rotating a block does not allocate. Rotations are stateless, and the
+ * singletons {@link #CLOCKWISE} and {@link #ANTI_CLOCKWISE} are the only instances.
+ * <br>
+ * Cells of a block are indexed by {@code row * 3 + column}, that is the cell number minus 1.
  */
 public interface Rotation {
     /**
-     * Rotates given array of cells as block state and returns resulting array.
+     * Clockwise rotation
+     */
+    Rotation CLOCKWISE = new ClockwiseRotation();
+    /**
+     * Anti-clockwise rotation
+     */
+    Rotation ANTI_CLOCKWISE = new AntiClockwiseRotation();
+
+    /**
+     * Gets the cell that moves to specified cell by this rotation.
+     *
+     * @param cell cell index in range 0 to 8
+     * @return index of source cell
+     */
+    int getSourceCell(int cell);
+
+    /**
+     * Checks direction of this rotation.
+     *
+     * @return {@code true} if the rotation is clockwise, {@code false} otherwise
+     */
+    boolean isClockwise();
+
+    /**
+     * Rotates given array of cells as block state in place. Each cycle of 4 cells is moved with a single temporary.
      *
-     * @param blockState array of cells as block state
-     * @return result of rotation
+     * @param blockState piece codes of the 9 cells of a block, see {@link Block}
      */
-    Cell[][] rotate(Cell[][] blockState);
+    default void rotate(byte[] blockState) {
+        // cell 0 starts the cycle of corners and cell 1 the cycle of edges, the center does not move
+        for (int start = 0; start < 2; start++) {
+            byte temp = blockState[start];
+            int cell = start;
+            for (int source = getSourceCell(cell); source != start; source = getSourceCell(cell)) {
+                blockState[cell] = blockState[source];
+                cell = source;
+            }
+            blockState[cell] = temp;
+        }
+    }
 }
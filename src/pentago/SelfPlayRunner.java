@@ -0,0 +1,338 @@
+package pentago;
+
+import pentago.ai.Evaluator;
+import pentago.ai.GameRecord;
+import pentago.ai.MiniMax;
+import pentago.ai.Move;
+import pentago.ai.MoveOrderingPolicy;
+import pentago.ai.SearchMetrics;
+import pentago.ai.SearchMode;
+import pentago.ai.TranspositionTable;
+import pentago.ai.WeightedEvaluator;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Command line tool that plays games between two {@link MiniMax} engines without console input and prints win and
+ * draw rates, average time of a move, searched game states per second and {@link SearchMetrics} of each engine.
+ * Games run in parallel on a fixed thread pool, each game has its own engines and its own seed, so results do not
+ * depend on the number of threads. Engine A plays red and moves first in even games, engine B in odd games.
+ * <br>
+ * Usage: {@code SelfPlayRunner [-games N] [-threads N] [-seed N] [-table MB] [-endgame N] [-record FILE]
+ * [-evaluatorA FILE] [-evaluatorB FILE] <engineA> <engineB>}, where {@code -endgame} is the empty cell threshold of
+ * endgame solver of both engines, {@code -record} appends the played games to a {@link GameRecord} file,
+ * {@code -evaluatorA} and {@code -evaluatorB} load the {@link WeightedEvaluator} weights of an engine and an engine is
+ * {@code minimax:<ply>}, {@code alpha_beta:<ply>} or {@code time:<milliseconds>}, optionally followed by a move
+ * ordering policy, for example {@code SelfPlayRunner -games 100 alpha_beta:3:heuristic alpha_beta:3:table_move}.
+ */
+public class SelfPlayRunner {
+    /**
+     * Utility class, not instantiable
+     */
+    private SelfPlayRunner() {
+    }
+
+    /**
+     * The main method of self-play tool.
+     *
+     * @param args program arguments
+     * @throws InterruptedException if waiting for games is interrupted
+     * @throws ExecutionException   if a game fails
+     * @throws IOException          if the game record file can not be written or an evaluator file can not be read
+     */
+    public static void main(String[] args) throws InterruptedException, ExecutionException, IOException {
+        int games = 100;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 0;
+        long tableBytes = 8L * 1024 * 1024;
+        int endgameThreshold = 0;
+        String recordFile = null;
+        Evaluator[] evaluators = {WeightedEvaluator.DEFAULT, WeightedEvaluator.DEFAULT};
+        int argIndex = 0;
+        for (; argIndex + 1 < args.length && args[argIndex].startsWith("-"); argIndex += 2) {
+            switch (args[argIndex]) {
+                case "-games":
+                    games = Integer.parseInt(args[argIndex + 1]);
+                    break;
+                case "-threads":
+                    threads = Integer.parseInt(args[argIndex + 1]);
+                    break;
+                case "-seed":
+                    seed = Long.parseLong(args[argIndex + 1]);
+                    break;
+                case "-table":
+                    tableBytes = Long.parseLong(args[argIndex + 1]) * 1024 * 1024;
+                    break;
+                case "-endgame":
+                    endgameThreshold = Integer.parseInt(args[argIndex + 1]);
+                    break;
+                case "-record":
+                    recordFile = args[argIndex + 1];
+                    break;
+                case "-evaluatorA":
+                    evaluators[0] = WeightedEvaluator.load(Paths.get(args[argIndex + 1]));
+                    break;
+                case "-evaluatorB":
+                    evaluators[1] = WeightedEvaluator.load(Paths.get(args[argIndex + 1]));
+                    break;
+                default:
+                    argIndex = args.length;
+            }
+        }
+        if (args.length - argIndex != 2) {
+            System.out.println("Usage: SelfPlayRunner [-games N] [-threads N] [-seed N] [-table MB] [-endgame N] "
+                    + "[-record FILE] [-evaluatorA FILE] [-evaluatorB FILE] <engineA> <engineB>");
+            System.out.println("Engine: minimax:<ply>, alpha_beta:<ply> or time:<milliseconds>, optionally followed "
+                    + "by :table_move or :heuristic");
+            return;
+        }
+        Engine[] engines = {new Engine(args[argIndex], tableBytes, endgameThreshold, evaluators[0]),
+                new Engine(args[argIndex + 1], tableBytes, endgameThreshold, evaluators[1])};
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<GameResult>> futures = new ArrayList<>();
+        for (int game = 0; game < games; game++) {
+            long gameSeed = seed + game;
+            boolean firstIsA = game % 2 == 0;
+            futures.add(executor.submit(() -> playGame(engines, firstIsA, gameSeed)));
+        }
+        int[] wins = new int[2];
+        int draws = 0;
+        long[] moves = new long[2];
+        long[] nanos = new long[2];
+        long[] nodes = new long[2];
+        GameRecord.Writer recordWriter = recordFile == null ? null : GameRecord.Writer.open(Paths.get(recordFile));
+        for (Future<GameResult> future : futures) {
+            GameResult result = future.get();
+            if (recordWriter != null) {
+                recordWriter.write(result.moves, result.moveCount, result.outcome);
+            }
+            if (result.winner < 0) {
+                draws++;
+            } else {
+                wins[result.winner]++;
+            }
+            for (int i = 0; i < 2; i++) {
+                moves[i] += result.moveCounts[i];
+                nanos[i] += result.nanos[i];
+                nodes[i] += result.nodes[i];
+            }
+        }
+        executor.shutdown();
+        if (recordWriter != null) {
+            recordWriter.close();
+        }
+        System.out.printf(Locale.ROOT, "%d games on %d threads%n", games, threads);
+        System.out.printf(Locale.ROOT, "A wins %d (%.1f%%), draws %d (%.1f%%), B wins %d (%.1f%%)%n",
+                wins[0], 100.0 * wins[0] / games, draws, 100.0 * draws / games, wins[1], 100.0 * wins[1] / games);
+        for (int i = 0; i < 2; i++) {
+            System.out.printf(Locale.ROOT, "%s %s: %d moves, %.2f ms/move, %.0f nodes/s%n", i == 0 ? "A" : "B",
+                    engines[i], moves[i], nanos[i] / 1e6 / Math.max(moves[i], 1),
+                    nodes[i] * 1e9 / Math.max(nanos[i], 1));
+            System.out.println(engines[i].metrics);
+        }
+    }
+
+    /**
+     * Plays a game between specified engines.
+     *
+     * @param engines  engine A and engine B
+     * @param firstIsA {@code true} if engine A plays red and moves first, {@code false} otherwise
+     * @param seed     seed of the game, engines choose between equal score moves by it
+     * @return result of the game
+     */
+    private static GameResult playGame(Engine[] engines, boolean firstIsA, long seed) {
+        Player red = new HumanPlayer("Red");
+        red.setPiece(Block.RED_PIECE);
+        Player black = new HumanPlayer("Black");
+        black.setPiece(Block.BLACK_PIECE);
+        Player[] players = {red, black};
+        // engine of each player, index 0 is red
+        int[] engineIndexes = firstIsA ? new int[]{0, 1} : new int[]{1, 0};
+        MiniMax[] miniMaxes = new MiniMax[2];
+        for (int i = 0; i < 2; i++) {
+            miniMaxes[i] = engines[engineIndexes[i]].create(players);
+            miniMaxes[i].setSeed(seed * 2 + i);
+        }
+        GameResult result = new GameResult();
+        Board board = new Board();
+        int turn = 0;
+        while (!board.isGameFinished()) {
+            Engine engine = engines[engineIndexes[turn]];
+            long start = System.nanoTime();
+            int move = engine.chooseMove(miniMaxes[turn], board, players[turn]);
+            result.nanos[engineIndexes[turn]] += System.nanoTime() - start;
+            result.moveCounts[engineIndexes[turn]]++;
+            result.moves[result.moveCount++] = move;
+            board.putPiece(players[turn].getPiece(), Move.getBlockNumber(move), Move.getCellNumber(move));
+            if (!board.hasWinner()) {
+                board.rotate(Move.getRotationBlock(move),
+                        Move.isClockwise(move) ? Rotation.CLOCKWISE : Rotation.ANTI_CLOCKWISE);
+            }
+            turn = 1 - turn;
+        }
+        for (int i = 0; i < 2; i++) {
+            result.nodes[engineIndexes[i]] = miniMaxes[i].getNodeCount();
+        }
+        result.outcome = GameRecord.getResult(new BitBoard(board));
+        if (result.outcome == GameRecord.RED_WIN || result.outcome == GameRecord.BLACK_WIN) {
+            result.winner = engineIndexes[result.outcome == GameRecord.RED_WIN ? 0 : 1];
+        }
+        return result;
+    }
+
+    /**
+     * An engine configuration of the command line
+     */
+    private static class Engine {
+        /**
+         * Command line text of engine
+         */
+        private String text;
+        /**
+         * Search mode, or {@code null} for a search with time budget
+         */
+        private SearchMode searchMode;
+        /**
+         * Maximum level of search with search mode
+         */
+        private int maxPly;
+        /**
+         * Time of each move of search with time budget
+         */
+        private Duration moveTime;
+        /**
+         * Move ordering policy of alpha-beta search
+         */
+        private MoveOrderingPolicy moveOrdering = MoveOrderingPolicy.HEURISTIC;
+        /**
+         * Memory usage of transposition table of each game
+         */
+        private long tableBytes;
+        /**
+         * Empty cell threshold of endgame solver, zero if endgame solver is not used
+         */
+        private int endgameThreshold;
+        /**
+         * Evaluation function of engine
+         */
+        private Evaluator evaluator;
+        /**
+         * Metrics of searches of all games of engine
+         */
+        private SearchMetrics metrics = new SearchMetrics();
+
+        /**
+         * Constructor of engine from command line text
+         *
+         * @param text             engine text, see {@link SelfPlayRunner}
+         * @param tableBytes       memory usage of transposition table of each game
+         * @param endgameThreshold empty cell threshold of endgame solver, zero if endgame solver is not used
+         * @param evaluator        evaluation function of engine
+         */
+        Engine(String text, long tableBytes, int endgameThreshold, Evaluator evaluator) {
+            this.text = text;
+            this.tableBytes = tableBytes;
+            this.endgameThreshold = endgameThreshold;
+            this.evaluator = evaluator;
+            String[] parts = text.split(":");
+            if (parts.length < 2 || parts.length > 3) {
+                throw new IllegalArgumentException("Invalid engine: " + text);
+            }
+            if (parts[0].equalsIgnoreCase("time")) {
+                moveTime = Duration.ofMillis(Long.parseLong(parts[1]));
+            } else {
+                searchMode = SearchMode.valueOf(parts[0].toUpperCase(Locale.ROOT));
+                maxPly = Integer.parseInt(parts[1]);
+            }
+            if (parts.length == 3) {
+                moveOrdering = MoveOrderingPolicy.valueOf(parts[2].toUpperCase(Locale.ROOT));
+            }
+        }
+
+        /**
+         * Creates a Minimax of this engine for a single game.
+         *
+         * @param players game players
+         * @return created Minimax
+         */
+        MiniMax create(Player[] players) {
+            MiniMax miniMax;
+            if (searchMode == SearchMode.MINIMAX) {
+                miniMax = new MiniMax(maxPly, players, SearchMode.MINIMAX);
+            } else {
+                SearchMode mode = searchMode == null ? SearchMode.ALPHA_BETA : searchMode;
+                miniMax = new MiniMax(maxPly, players, mode, new TranspositionTable(tableBytes));
+            }
+            miniMax.setMoveOrdering(moveOrdering);
+            miniMax.setEndgameThreshold(endgameThreshold);
+            miniMax.setEvaluator(evaluator);
+            miniMax.setSearchListener(metrics);
+            return miniMax;
+        }
+
+        /**
+         * Chooses a move with specified Minimax of this engine.
+         *
+         * @param miniMax Minimax of this engine
+         * @param board   game board
+         * @param turn    player to choose move for
+         * @return chosen packed move
+         */
+        int chooseMove(MiniMax miniMax, Board board, Player turn) {
+            return moveTime == null ? miniMax.chooseMove(board, turn) : miniMax.chooseMove(board, turn, moveTime);
+        }
+
+        /**
+         * Gets command line text of engine.
+         *
+         * @return engine text
+         */
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    /**
+     * Result of a game, values of arrays are indexed by engine
+     */
+    private static class GameResult {
+        /**
+         * Index of winner engine, or -1 for a tie
+         */
+        private int winner = -1;
+        /**
+         * Result of the game, see {@link GameRecord}
+         */
+        private int outcome;
+        /**
+         * Number of moves of each engine
+         */
+        private int[] moveCounts = new int[2];
+        /**
+         * Packed moves of the game
+         */
+        private int[] moves = new int[36];
+        /**
+         * Number of moves of the game
+         */
+        private int moveCount;
+        /**
+         * Time of moves of each engine in nanoseconds
+         */
+        private long[] nanos = new long[2];
+        /**
+         * Number of searched game states of each engine
+         */
+        private long[] nodes = new long[2];
+    }
+}
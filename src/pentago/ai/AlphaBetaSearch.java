@@ -0,0 +1,564 @@
+package pentago.ai;
+
+import pentago.Player;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Alpha-beta search with iterative deepening and aspiration windows. It computes the same scores as the Minimax
+ * decision rule but skips the children that can not change the result.
+ * <br>
+ * If a pool is specified, root moves are searched in parallel. The first root move is searched alone and its score
+ * is the bound of the other root moves, that are searched by the pool threads and share the best score found so far
+ * (young brothers wait). The threads share the transposition table, and a table entry is used only if it has the
+ * same depth, so the scores of root moves do not depend on the order that threads finish. Children are searched in
+ * order of a {@link MoveOrderingPolicy}.
+ * <br>
+ * A search with a time budget checks its deadline while it searches and stops all threads cooperatively when the
+ * deadline passes. The stopped iteration is discarded and the moves of the last complete iteration are returned.
+ * <br>
+ * Each thread counts its searched game states, cutoffs and table probes in its own {@link SearchStatistics}, and the
+ * counters of workers are merged when their root move is searched.
+ * <br>
+ * Children of a game state at the last level are leaves, so they are not applied one by one. They are scored in
+ * batches by {@link GameState#scoreChildren(int[], int, int, Player, int[])} when the loop reaches them. Batches start
+ * small and double in size, because most game states with a cutoff have it at one of the first children.
+ * For more information about alpha-beta pruning,
+ * see <a href="https://en.wikipedia.org/wiki/Alpha%E2%80%93beta_pruning">https://en.wikipedia.org/wiki/Alpha%E2%80%93beta_pruning</a>
+ */
+class AlphaBetaSearch {
+    /**
+     * Score bound that is greater than any utility score
+     */
+    static final int INFINITY = Integer.MAX_VALUE;
+    /**
+     * Half width of the aspiration window around the previous iteration score
+     */
+    private static final int ASPIRATION_WINDOW = 50;
+    /**
+     * Mask of the number of searched game states that the deadline is checked at, the deadline is checked once per
+     * 1024 game states
+     */
+    private static final int DEADLINE_CHECK_MASK = 1023;
+    /**
+     * Number of leaves in the first batch of leaves of a game state
+     */
+    private static final int FIRST_LEAF_BATCH = 4;
+    /**
+     * Maximum level of search
+     */
+    private int maxPly;
+    /**
+     * Player that search chooses move for
+     */
+    private Player turn;
+    /**
+     * Opponent of the player that search chooses move for
+     */
+    private Player opponent;
+    /**
+     * Transposition table that keeps results of searched game states
+     */
+    private TranspositionTable table;
+    /**
+     * Generation of transposition table that this search stores its entries with
+     */
+    private int generation;
+    /**
+     * Pool that searches root moves in parallel, or {@code null} for searching in current thread
+     */
+    private ForkJoinPool pool;
+    /**
+     * Reusable move buffers, one for each level of search
+     */
+    private int[][] moveBuffers;
+    /**
+     * Reusable buffer of the scores of children that are leaves
+     */
+    private int[] leafScores = new int[Move.MAX_MOVES];
+    /**
+     * Policy of move ordering, each thread of search has its own move ordering
+     */
+    private MoveOrderingPolicy moveOrderingPolicy;
+    /**
+     * Move ordering of this thread
+     */
+    private MoveOrdering moveOrdering;
+    /**
+     * Value of {@link System#nanoTime()} that search stops at
+     */
+    private long deadline;
+    /**
+     * Whether the deadline is checked, the first iteration is never stopped so there is always a move to return
+     */
+    private boolean checkDeadline;
+    /**
+     * Statistics of this thread, the deadline is checked when its number of game states reaches a multiple of 1024
+     */
+    private SearchStatistics statistics = new SearchStatistics();
+    /**
+     * Merged statistics of workers, shared by all threads of search and guarded by its own lock
+     */
+    private SearchStatistics workerStatistics = new SearchStatistics();
+    /**
+     * Listener that is notified of complete iterations, or {@code null}
+     */
+    private SearchListener listener;
+    /**
+     * Whether search is stopped, shared by all threads of search
+     */
+    private AtomicBoolean stopped = new AtomicBoolean();
+
+    /**
+     * Constructor of alpha-beta search
+     *
+     * @param maxPly             Maximum level of search
+     * @param table              transposition table that keeps results of searched game states
+     * @param pool               pool that searches root moves in parallel, or {@code null} for searching in current
+     *                           thread
+     * @param moveOrderingPolicy policy of move ordering
+     */
+    AlphaBetaSearch(int maxPly, TranspositionTable table, ForkJoinPool pool, MoveOrderingPolicy moveOrderingPolicy) {
+        this.maxPly = maxPly;
+        this.table = table;
+        this.pool = pool;
+        this.moveOrderingPolicy = moveOrderingPolicy;
+        this.moveOrdering = moveOrderingPolicy.create(maxPly);
+    }
+
+    /**
+     * Constructor of a worker that searches root moves of specified search in another thread
+     *
+     * @param search search to help
+     */
+    private AlphaBetaSearch(AlphaBetaSearch search) {
+        this.maxPly = search.maxPly;
+        this.table = search.table;
+        this.generation = search.generation;
+        this.turn = search.turn;
+        this.opponent = search.opponent;
+        this.moveBuffers = new int[maxPly][Move.MAX_MOVES];
+        this.moveOrderingPolicy = search.moveOrderingPolicy;
+        this.moveOrdering = moveOrderingPolicy.create(maxPly);
+        this.deadline = search.deadline;
+        this.checkDeadline = search.checkDeadline;
+        this.stopped = search.stopped;
+        this.workerStatistics = search.workerStatistics;
+    }
+
+    /**
+     * Searches specified game state with increasing depth up to maximum level and returns all moves with the best
+     * score. Each iteration searches root moves in order of previous iteration scores and starts with a narrow window
+     * around previous iteration score, the window opens to full width if the score falls outside of it.
+     *
+     * @param gameState game state to search, turn player is the max player
+     * @param opponent  opponent of turn player
+     * @return all packed moves with the best score, in ascending order
+     */
+    int[] search(GameState gameState, Player opponent) {
+        return search(gameState, opponent, null);
+    }
+
+    /**
+     * Searches specified game state with increasing depth up to maximum level or until specified time budget is spent,
+     * and returns all moves with the best score of the last complete iteration. The first iteration is always complete.
+     *
+     * @param gameState game state to search, turn player is the max player
+     * @param opponent  opponent of turn player
+     * @param budget    time budget of search, or {@code null} for searching to maximum level
+     * @return all packed moves with the best score, in ascending order
+     */
+    int[] search(GameState gameState, Player opponent, Duration budget) {
+        long start = System.nanoTime();
+        if (budget != null) {
+            deadline = start + budget.toNanos();
+        }
+        this.turn = gameState.getTurn();
+        this.opponent = opponent;
+        generation = table.newSearch();
+        moveBuffers = new int[maxPly][Move.MAX_MOVES];
+        int[] moves = moveBuffers[0];
+        int count = gameState.generateDistinctMoves(moves);
+        List<RootMove> rootMoves = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rootMoves.add(new RootMove(moves[i]));
+        }
+        int[] bestMoves = new int[count];
+        int bestCount = 0;
+        int score = 0;
+        for (int depth = 1; depth <= maxPly; depth++) {
+            long iterationStart = System.nanoTime();
+            long iterationNodes = getNodeCount();
+            checkDeadline = budget != null && depth > 1;
+            int alpha = -INFINITY;
+            int beta = INFINITY;
+            if (depth > 1) {
+                alpha = score - ASPIRATION_WINDOW;
+                beta = score + ASPIRATION_WINDOW;
+            }
+            int iterationScore = searchRootMoves(gameState, rootMoves, depth, alpha, beta);
+            if (!stopped.get() && (iterationScore <= alpha || iterationScore >= beta)) {
+                iterationScore = searchRootMoves(gameState, rootMoves, depth, -INFINITY, INFINITY);
+            }
+            if (stopped.get()) {
+                break;
+            }
+            long iterationNanos = System.nanoTime() - iterationStart;
+            statistics.addIteration(depth, iterationNanos, getNodeCount() - iterationNodes);
+            if (listener != null) {
+                listener.iterationFinished(depth, iterationNanos);
+            }
+            score = iterationScore;
+            bestCount = 0;
+            for (RootMove rootMove : rootMoves) {
+                if (rootMove.score == score) {
+                    bestMoves[bestCount++] = rootMove.move;
+                }
+            }
+            rootMoves.sort((first, second) -> Integer.compare(second.score, first.score));
+        }
+        statistics.nanos = System.nanoTime() - start;
+        bestMoves = Arrays.copyOf(bestMoves, bestCount);
+        Arrays.sort(bestMoves);
+        return bestMoves;
+    }
+
+    /**
+     * Gets number of game states searched by all threads, except the root.
+     *
+     * @return number of searched game states
+     */
+    long getNodeCount() {
+        synchronized (workerStatistics) {
+            return statistics.nodes + workerStatistics.nodes;
+        }
+    }
+
+    /**
+     * Gets statistics of the last search, with merged counters of all threads.
+     *
+     * @return statistics of search
+     */
+    SearchStatistics getStatistics() {
+        SearchStatistics result = new SearchStatistics();
+        result.add(statistics);
+        synchronized (workerStatistics) {
+            result.add(workerStatistics);
+        }
+        result.depth = statistics.depth;
+        result.nanos = statistics.nanos;
+        result.iterationNanos = statistics.iterationNanos.clone();
+        result.iterationNodes = statistics.iterationNodes.clone();
+        return result;
+    }
+
+    /**
+     * Sets listener that is notified of complete iterations.
+     *
+     * @param listener search listener, or {@code null}
+     */
+    void setListener(SearchListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Stops search from another thread. A running search returns the moves of its last complete iteration soon after.
+     */
+    void stop() {
+        stopped.set(true);
+    }
+
+    /**
+     * Searches all root moves in specified window, in current thread or in parallel if pool is specified.
+     *
+     * @param gameState game state to search
+     * @param rootMoves moves of the game state
+     * @param depth     search depth
+     * @param alpha     lower bound of window
+     * @param beta      upper bound of window
+     * @return best score
+     */
+    private int searchRootMoves(GameState gameState, List<RootMove> rootMoves, int depth, int alpha, int beta) {
+        for (RootMove rootMove : rootMoves) {
+            rootMove.score = -INFINITY;
+        }
+        if (pool == null || rootMoves.size() < 2) {
+            return searchRoot(gameState, rootMoves, depth, alpha, beta);
+        }
+        return searchRootParallel(gameState, rootMoves, depth, alpha, beta);
+    }
+
+    /**
+     * Searches all root moves in specified window and sets their scores. Moves after the first best one are searched
+     * with a window that includes the best score, so all moves with the same score get the exact score.
+     *
+     * @param gameState game state to search
+     * @param rootMoves moves of the game state
+     * @param depth     search depth
+     * @param alpha     lower bound of window
+     * @param beta      upper bound of window
+     * @return best score
+     */
+    private int searchRoot(GameState gameState, List<RootMove> rootMoves, int depth, int alpha, int beta) {
+        int bestScore = -INFINITY;
+        for (RootMove rootMove : rootMoves) {
+            int childAlpha = bestScore == -INFINITY ? alpha : Math.max(alpha, bestScore - 1);
+            rootMove.score = searchRootMove(gameState, rootMove.move, depth, childAlpha, beta);
+            bestScore = Math.max(bestScore, rootMove.score);
+            if (bestScore >= beta || stopped.get()) {
+                break;
+            }
+        }
+        return bestScore;
+    }
+
+    /**
+     * Searches root moves in parallel in specified window and sets their scores. The first move is searched in current
+     * thread, then other moves are searched by pool threads with a window that includes the best score so far.
+     *
+     * @param gameState game state to search
+     * @param rootMoves moves of the game state
+     * @param depth     search depth
+     * @param alpha     lower bound of window
+     * @param beta      upper bound of window
+     * @return best score
+     */
+    private int searchRootParallel(GameState gameState, List<RootMove> rootMoves, int depth, int alpha, int beta) {
+        RootMove first = rootMoves.get(0);
+        first.score = searchRootMove(gameState, first.move, depth, alpha, beta);
+        if (first.score >= beta || stopped.get()) {
+            return first.score;
+        }
+        AtomicInteger bestScore = new AtomicInteger(first.score);
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (RootMove rootMove : rootMoves.subList(1, rootMoves.size())) {
+            tasks.add(pool.submit(() -> {
+                int best = bestScore.get();
+                if (best >= beta || stopped.get()) {
+                    return;
+                }
+                AlphaBetaSearch worker = new AlphaBetaSearch(this);
+                rootMove.score = worker.searchRootMove(new GameState(gameState), rootMove.move, depth,
+                        Math.max(alpha, best - 1), beta);
+                bestScore.accumulateAndGet(rootMove.score, Math::max);
+                synchronized (workerStatistics) {
+                    workerStatistics.add(worker.statistics);
+                }
+            }));
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+        return bestScore.get();
+    }
+
+    /**
+     * Searches a single root move in specified window. The game state is not changed when it returns.
+     *
+     * @param gameState game state to search
+     * @param move      root move
+     * @param depth     search depth
+     * @param alpha     lower bound of window
+     * @param beta      upper bound of window
+     * @return score of the move
+     */
+    private int searchRootMove(GameState gameState, int move, int depth, int alpha, int beta) {
+        gameState.apply(move);
+        int score = alphaBeta(gameState, 1, depth - 1, alpha, beta);
+        gameState.undo(move);
+        return score;
+    }
+
+    /**
+     * Alpha-beta execution for specified game state. The returned score is exact if it is inside the window, otherwise
+     * it is a bound of the exact score. Results are kept in the transposition table from the view of the player that
+     * moves next, so they are valid whoever the max player of a later search is, and by the smallest hash of
+     * symmetric game states, so they are shared by all symmetric game states. Only distinct moves are searched, see
+     * {@link GameState#generateDistinctMoves(int[])}. The game state is not changed when it returns. If search is
+     * stopped, the returned score is meaningless and nothing is stored in the table.
+     *
+     * @param gameState current game state
+     * @param ply       level of the game state, root is level 0
+     * @param depth     remaining levels of search
+     * @param alpha     score that max player is already assured of
+     * @param beta      score that min player is already assured of
+     * @return score of the game state
+     */
+    private int alphaBeta(GameState gameState, int ply, int depth, int alpha, int beta) {
+        if (isStopped()) {
+            return 0;
+        }
+        if (depth == 0 || gameState.isGameOver()) {
+            return gameState.computeScore(turn, opponent);
+        }
+        boolean maxPlayer = gameState.isMaxPlayer();
+        int symmetry = gameState.getCanonicalSymmetry();
+        long hash = gameState.getHash(symmetry);
+        int tableMove = Move.NONE;
+        long entry = table.probe(hash);
+        statistics.tableProbes++;
+        if (entry != 0) {
+            statistics.tableHits++;
+            // the table keeps moves of the symmetric game state that has the smallest hash
+            tableMove = TranspositionTable.getMove(entry);
+            if (tableMove != Move.NONE) {
+                tableMove = Symmetry.transformMove(Symmetry.inverse(symmetry), tableMove);
+            }
+            // a deeper entry would make the score depend on earlier searches and on the order of threads
+            if (TranspositionTable.getDepth(entry) == depth) {
+                int score = maxPlayer ? TranspositionTable.getScore(entry) : -TranspositionTable.getScore(entry);
+                int bound = toMaxPlayerBound(TranspositionTable.getBound(entry), maxPlayer);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+                        || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                    statistics.tableCutoffs++;
+                    return score;
+                }
+            }
+        }
+        int originalAlpha = alpha;
+        int originalBeta = beta;
+        int bestScore = maxPlayer ? -INFINITY : INFINITY;
+        int bestMove = Move.NONE;
+        int[] moves = moveBuffers[ply];
+        int count = gameState.generateDistinctMoves(moves);
+        moveOrdering.order(gameState, ply, moves, count, tableMove);
+        statistics.interiorNodes++;
+        statistics.generatedMoves += count;
+        boolean leaves = depth == 1;
+        int batchStart = 0;
+        int batchEnd = 0;
+        for (int i = 0; i < count; i++) {
+            int score;
+            if (leaves) {
+                if (i == batchEnd) {
+                    int batchSize = Math.min(Math.max(FIRST_LEAF_BATCH, 2 * (batchEnd - batchStart)), count - i);
+                    if (countLeaves(batchSize)) {
+                        return 0;
+                    }
+                    gameState.scoreChildren(moves, i, batchSize, turn, leafScores);
+                    batchStart = i;
+                    batchEnd = i + batchSize;
+                }
+                score = leafScores[i - batchStart];
+            } else {
+                gameState.apply(moves[i]);
+                score = alphaBeta(gameState, ply + 1, depth - 1, alpha, beta);
+                gameState.undo(moves[i]);
+                if (stopped.get()) {
+                    return 0;
+                }
+            }
+            if (maxPlayer ? score > bestScore : score < bestScore) {
+                bestScore = score;
+                bestMove = moves[i];
+            }
+            if (maxPlayer) {
+                alpha = Math.max(alpha, bestScore);
+            } else {
+                beta = Math.min(beta, bestScore);
+            }
+            if (alpha >= beta) {
+                statistics.cutoffs++;
+                if (i == 0) {
+                    statistics.firstMoveCutoffs++;
+                }
+                moveOrdering.addCutoff(ply, depth, moves[i]);
+                break;
+            }
+        }
+        int bound = TranspositionTable.EXACT;
+        if (bestScore <= originalAlpha) {
+            bound = TranspositionTable.UPPER_BOUND;
+        } else if (bestScore >= originalBeta) {
+            bound = TranspositionTable.LOWER_BOUND;
+        }
+        table.store(hash, depth, toMaxPlayerBound(bound, maxPlayer), maxPlayer ? bestScore : -bestScore,
+                bestMove == Move.NONE ? Move.NONE : Symmetry.transformMove(symmetry, bestMove), generation);
+        return bestScore;
+    }
+
+    /**
+     * Checks if search is stopped and counts the searched game state. It stops search if the deadline has passed, the
+     * deadline is checked only once per 1024 calls because reading the clock is slower than searching a game state.
+     *
+     * @return {@code true} if search is stopped, {@code false} otherwise
+     */
+    private boolean isStopped() {
+        if (stopped.get()) {
+            return true;
+        }
+        long nodes = ++statistics.nodes;
+        if (checkDeadline && (nodes & DEADLINE_CHECK_MASK) == 0 && System.nanoTime() - deadline >= 0) {
+            stopped.set(true);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Counts specified number of searched leaves at once and checks if search is stopped, like calling
+     * {@link #isStopped()} for each leaf.
+     *
+     * @param count number of leaves
+     * @return {@code true} if search is stopped, {@code false} otherwise
+     */
+    private boolean countLeaves(int count) {
+        if (stopped.get()) {
+            return true;
+        }
+        long nodes = statistics.nodes;
+        statistics.nodes += count;
+        // the deadline is checked if the count passed a multiple of 1024
+        if (checkDeadline && (nodes | DEADLINE_CHECK_MASK) < statistics.nodes && System.nanoTime() - deadline >= 0) {
+            stopped.set(true);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Converts a bound type between the view of the max player and the view of the player that moves next. Negating
+     * a score swaps its lower and upper bounds.
+     *
+     * @param bound     bound type
+     * @param maxPlayer {@code true} if the max player moves next, {@code false} otherwise
+     * @return converted bound type
+     */
+    private static int toMaxPlayerBound(int bound, boolean maxPlayer) {
+        if (maxPlayer || bound == TranspositionTable.EXACT) {
+            return bound;
+        }
+        return bound == TranspositionTable.LOWER_BOUND ? TranspositionTable.UPPER_BOUND : TranspositionTable.LOWER_BOUND;
+    }
+
+    /**
+     * A root move with its score from the last search
+     */
+    private static class RootMove {
+        /**
+         * The packed move
+         */
+        private int move;
+        /**
+         * Score of the move from the last search
+         */
+        private int score;
+
+        /**
+         * Constructor of root move
+         *
+         * @param move the move
+         */
+        RootMove(int move) {
+            this.move = move;
+        }
+    }
+}
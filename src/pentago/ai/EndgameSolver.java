@@ -0,0 +1,402 @@
+package pentago.ai;
+
+import pentago.BitBoard;
+import pentago.Board;
+import pentago.Lines;
+import pentago.Player;
+
+import java.util.Arrays;
+
+/**
+ * Exact solver of game states with few empty cells. It searches the whole move tree to the end of the game and proves
+ * if the player that moves next wins, draws or loses, with negamax alpha-beta search over these three results.
+ * <br>
+ * Game states are kept as two cell masks, of the player that moves next and of its opponent, so the result of a game
+ * state does not depend on colors. A move that makes a 5-in-a-row is searched first and ends the search of its game
+ * state, children that give opponent a winning cell are lost without search, and the other children are searched in
+ * order of the number of winning cells they make. Children with the same result are searched once, and results are
+ * kept in a cache by the smallest of the 8 symmetric game states, see {@link Symmetry}.
+ * <br>
+ * A 5-in-a-row of both colors after a rotation is a tie.
+ */
+public class EndgameSolver {
+    /**
+     * Result of a game state that the player that moves next loses
+     */
+    public static final int LOSS = -1;
+    /**
+     * Result of a game state that ends in a tie
+     */
+    public static final int DRAW = 0;
+    /**
+     * Result of a game state that the player that moves next wins
+     */
+    public static final int WIN = 1;
+    /**
+     * Bound type of an exact result
+     */
+    private static final int EXACT = 1;
+    /**
+     * Bound type of a result that the exact result is greater than or equal to
+     */
+    private static final int LOWER_BOUND = 2;
+    /**
+     * Bound type of a result that the exact result is less than or equal to
+     */
+    private static final int UPPER_BOUND = 3;
+    /**
+     * Memory usage of each cache entry in bytes
+     */
+    private static final int ENTRY_BYTES = 17;
+    /**
+     * Mask of all 36 cells of the board
+     */
+    private static final long FULL_MASK = (1L << 36) - 1;
+    /**
+     * All lines of 5 cells
+     */
+    private static final long[] FIVE_LINES = Lines.getLines(5);
+    /**
+     * Cells of the player that moves next of cache entries
+     */
+    private final long[] cacheMines;
+    /**
+     * Cells of the opponent of cache entries
+     */
+    private final long[] cacheTheirs;
+    /**
+     * Result and bound type of cache entries, zero means empty entry
+     */
+    private final byte[] cacheValues;
+    /**
+     * Boards of children of each number of empty cells, used for skipping children with the same result
+     */
+    private final PositionSet[] positions = new PositionSet[37];
+    /**
+     * Cells of the player that moves next of children that are searched, for each number of empty cells
+     */
+    private final long[][] childMines = new long[37][Move.MAX_MOVES];
+    /**
+     * Cells of the opponent of children that are searched, for each number of empty cells
+     */
+    private final long[][] childTheirs = new long[37][Move.MAX_MOVES];
+    /**
+     * Order keys of children that are searched, for each number of empty cells
+     */
+    private final int[][] childKeys = new int[37][Move.MAX_MOVES];
+    /**
+     * Cells of the player that moves next of the last canonicalized game state
+     */
+    private long canonicalMine;
+    /**
+     * Cells of the opponent of the last canonicalized game state
+     */
+    private long canonicalTheirs;
+    /**
+     * Best packed move of the last solved game state
+     */
+    private int bestMove = Move.NONE;
+    /**
+     * Number of game states searched by all solves
+     */
+    private long nodeCount;
+
+    /**
+     * Constructor of endgame solver with a cache that uses at most specified memory.
+     *
+     * @param cacheBytes maximum memory usage of cache in bytes
+     */
+    public EndgameSolver(long cacheBytes) {
+        int capacity = Integer.highestOneBit((int) Math.max(1, Math.min(cacheBytes / ENTRY_BYTES, 1 << 30)));
+        cacheMines = new long[capacity];
+        cacheTheirs = new long[capacity];
+        cacheValues = new byte[capacity];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = new PositionSet();
+        }
+    }
+
+    /**
+     * Solves specified board for specified player that moves next.
+     *
+     * @param board board to solve
+     * @param turn  player that moves next
+     * @return {@link #WIN}, {@link #DRAW} or {@link #LOSS} for the player
+     * @see #getBestMove()
+     */
+    public int solve(Board board, Player turn) {
+        BitBoard bitBoard = new BitBoard(board);
+        return solve(bitBoard, BitBoard.isRed(turn.getPiece()));
+    }
+
+    /**
+     * Gets the best move of the last solved game state, a move with the proven result.
+     *
+     * @return best packed move, or {@link Move#NONE} if the game is finished
+     */
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    /**
+     * Gets number of game states that all solves searched.
+     *
+     * @return number of searched game states
+     */
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Removes all results of the cache.
+     */
+    public void clear() {
+        Arrays.fill(cacheValues, (byte) 0);
+    }
+
+    /**
+     * Solves specified board for specified color that moves next.
+     *
+     * @param board   board to solve
+     * @param redTurn {@code true} if red moves next, {@code false} otherwise
+     * @return {@link #WIN}, {@link #DRAW} or {@link #LOSS} for the color that moves next
+     */
+    int solve(BitBoard board, boolean redTurn) {
+        long mine = redTurn ? board.getRedMask() : board.getBlackMask();
+        long theirs = redTurn ? board.getBlackMask() : board.getRedMask();
+        bestMove = Move.NONE;
+        long empty = ~(mine | theirs) & FULL_MASK;
+        boolean won = Lines.hasFiveInARow(mine);
+        boolean lost = Lines.hasFiveInARow(theirs);
+        if (won || lost || empty == 0) {
+            return won == lost ? DRAW : won ? WIN : LOSS;
+        }
+        long winningCells = getWinningCells(mine, theirs) & empty;
+        if (winningCells != 0) {
+            bestMove = Move.create(Long.numberOfTrailingZeros(winningCells), 1, true);
+            return WIN;
+        }
+        int best = LOSS - 1;
+        for (long cells = empty; cells != 0; cells &= cells - 1) {
+            int cellIndex = Long.numberOfTrailingZeros(cells);
+            for (int blockNumber = 1; blockNumber <= 4; blockNumber++) {
+                for (int direction = 0; direction < 2; direction++) {
+                    boolean clockwise = direction == 0;
+                    long childMine = BitBoard.rotate(mine | 1L << cellIndex, blockNumber, clockwise);
+                    long childTheirs = BitBoard.rotate(theirs, blockNumber, clockwise);
+                    int result = getResult(childMine, childTheirs, ~(childMine | childTheirs) & FULL_MASK,
+                            Math.max(best, LOSS), WIN);
+                    if (result > best) {
+                        best = result;
+                        bestMove = Move.create(cellIndex, blockNumber, clockwise);
+                        if (best == WIN) {
+                            return WIN;
+                        }
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Gets result of the player that moved to a child game state, in specified window.
+     *
+     * @param mine   cells of the player that moved
+     * @param theirs cells of the opponent, that moves next
+     * @param empty  empty cells
+     * @param alpha  result that the player is already assured of
+     * @param beta   result that the opponent is already assured of
+     * @return result for the player that moved, exact if it is inside the window
+     */
+    private int getResult(long mine, long theirs, long empty, int alpha, int beta) {
+        boolean won = Lines.hasFiveInARow(mine);
+        boolean lost = Lines.hasFiveInARow(theirs);
+        if (won || lost) {
+            return won == lost ? DRAW : won ? WIN : LOSS;
+        }
+        if (empty == 0) {
+            return DRAW;
+        }
+        return -negamax(theirs, mine, empty, -beta, -alpha);
+    }
+
+    /**
+     * Negamax alpha-beta search of a game state that is not finished.
+     *
+     * @param mine   cells of the player that moves next
+     * @param theirs cells of the opponent
+     * @param empty  empty cells
+     * @param alpha  result that the player is already assured of
+     * @param beta   result that the opponent is already assured of
+     * @return result for the player that moves next, exact if it is inside the window
+     */
+    private int negamax(long mine, long theirs, long empty, int alpha, int beta) {
+        nodeCount++;
+        if ((getWinningCells(mine, theirs) & empty) != 0) {
+            return WIN;
+        }
+        int index = probe(mine, theirs);
+        if (index >= 0) {
+            int value = cacheValues[index];
+            int result = (value & 3) - 1;
+            int bound = value >> 2;
+            if (bound == EXACT || (bound == LOWER_BOUND && result >= beta)
+                    || (bound == UPPER_BOUND && result <= alpha)) {
+                return result;
+            }
+        }
+        int originalAlpha = alpha;
+        int emptyCount = Long.bitCount(empty);
+        PositionSet children = positions[emptyCount];
+        long[] mines = childMines[emptyCount];
+        long[] theirsBuffer = childTheirs[emptyCount];
+        int[] keys = childKeys[emptyCount];
+        children.clear();
+        int best = LOSS;
+        int count = 0;
+        for (long cells = empty; cells != 0; cells &= cells - 1) {
+            long cell = cells & -cells;
+            long childEmpty = empty & ~cell;
+            for (int blockNumber = 1; blockNumber <= 4; blockNumber++) {
+                for (int direction = 0; direction < 2; direction++) {
+                    boolean clockwise = direction == 0;
+                    long childMine = BitBoard.rotate(mine | cell, blockNumber, clockwise);
+                    long childTheirs = BitBoard.rotate(theirs, blockNumber, clockwise);
+                    if (!children.add(childMine, childTheirs)) {
+                        continue;
+                    }
+                    boolean won = Lines.hasFiveInARow(childMine);
+                    boolean lost = Lines.hasFiveInARow(childTheirs);
+                    if (won && !lost) {
+                        return WIN;
+                    }
+                    if (won || lost || childEmpty == 0) {
+                        // finished children are a draw or a loss
+                        best = Math.max(best, won == lost ? DRAW : LOSS);
+                        continue;
+                    }
+                    long rotatedEmpty = ~(childMine | childTheirs) & FULL_MASK;
+                    if ((getWinningCells(childTheirs, childMine) & rotatedEmpty) != 0) {
+                        // opponent wins by its next piece
+                        continue;
+                    }
+                    mines[count] = childMine;
+                    theirsBuffer[count] = childTheirs;
+                    keys[count] = Long.bitCount(getWinningCells(childMine, childTheirs) & rotatedEmpty) << 16 | count;
+                    count++;
+                }
+            }
+        }
+        alpha = Math.max(alpha, best);
+        if (alpha < beta) {
+            Arrays.sort(keys, 0, count);
+            for (int i = count - 1; i >= 0; i--) {
+                int child = keys[i] & 0xFFFF;
+                long childMine = mines[child];
+                long childTheirs = theirsBuffer[child];
+                int result = -negamax(childTheirs, childMine, ~(childMine | childTheirs) & FULL_MASK, -beta, -alpha);
+                best = Math.max(best, result);
+                alpha = Math.max(alpha, best);
+                if (alpha >= beta) {
+                    break;
+                }
+            }
+        }
+        int bound = EXACT;
+        if (best <= originalAlpha) {
+            bound = UPPER_BOUND;
+        } else if (best >= beta) {
+            bound = LOWER_BOUND;
+        }
+        store(mine, theirs, best, bound);
+        return best;
+    }
+
+    /**
+     * Gets cells that make a 5-in-a-row for specified cells, that are the missing cells of 5 cell lines that have 4
+     * cells of the player and no cell of the opponent.
+     *
+     * @param mine   cells of the player
+     * @param theirs cells of the opponent
+     * @return winning cells of the player
+     */
+    private static long getWinningCells(long mine, long theirs) {
+        long cells = 0;
+        for (long line : FIVE_LINES) {
+            if ((line & theirs) == 0 && Long.bitCount(line & mine) == 4) {
+                cells |= line & ~mine;
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Finds the cache entry of specified game state.
+     *
+     * @param mine   cells of the player that moves next
+     * @param theirs cells of the opponent
+     * @return index of the entry, or -1 if the cache does not have the game state
+     */
+    private int probe(long mine, long theirs) {
+        canonicalize(mine, theirs);
+        int index = getIndex(canonicalMine, canonicalTheirs);
+        if (cacheValues[index] != 0 && cacheMines[index] == canonicalMine && cacheTheirs[index] == canonicalTheirs) {
+            return index;
+        }
+        return -1;
+    }
+
+    /**
+     * Stores result of a game state in the cache, replacing the entry at its index.
+     *
+     * @param mine   cells of the player that moves next
+     * @param theirs cells of the opponent
+     * @param result result for the player that moves next
+     * @param bound  bound type of result
+     */
+    private void store(long mine, long theirs, int result, int bound) {
+        canonicalize(mine, theirs);
+        int index = getIndex(canonicalMine, canonicalTheirs);
+        cacheMines[index] = canonicalMine;
+        cacheTheirs[index] = canonicalTheirs;
+        cacheValues[index] = (byte) (bound << 2 | (result + 1));
+    }
+
+    /**
+     * Finds the smallest of the 8 symmetric game states of specified game state, comparing cells of the player first,
+     * and keeps it in {@link #canonicalMine} and {@link #canonicalTheirs}.
+     *
+     * @param mine   cells of the player that moves next
+     * @param theirs cells of the opponent
+     */
+    private void canonicalize(long mine, long theirs) {
+        long bestMine = mine;
+        long bestTheirs = theirs;
+        for (int symmetry = 1; symmetry < Symmetry.COUNT; symmetry++) {
+            long symmetricMine = Symmetry.transformMask(symmetry, mine);
+            if (symmetricMine > bestMine) {
+                continue;
+            }
+            long symmetricTheirs = Symmetry.transformMask(symmetry, theirs);
+            if (symmetricMine < bestMine || symmetricTheirs < bestTheirs) {
+                bestMine = symmetricMine;
+                bestTheirs = symmetricTheirs;
+            }
+        }
+        canonicalMine = bestMine;
+        canonicalTheirs = bestTheirs;
+    }
+
+    /**
+     * Gets cache index of specified game state.
+     *
+     * @param mine   cells of the player that moves next
+     * @param theirs cells of the opponent
+     * @return index of cache entry
+     */
+    private int getIndex(long mine, long theirs) {
+        long hash = (mine * 0x9E3779B97F4A7C15L) ^ (theirs * 0xC2B2AE3D27D4EB4FL);
+        return (int) (hash >>> 32) & (cacheValues.length - 1);
+    }
+}
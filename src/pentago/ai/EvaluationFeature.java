@@ -0,0 +1,79 @@
+package pentago.ai;
+
+/**
+ * Features of a game state that {@link WeightedEvaluator} scores. Each feature is counted for the cells of one color
+ * and has a key in weight files and a default weight. Default weights are the heuristics of
+ * <a href="https://www.ke.tu-darmstadt.de/lehre/arbeiten/bachelor/2011/Buescher_Niklas.pdf">
+ * https://www.ke.tu-darmstadt.de/lehre/arbeiten/bachelor/2011/Buescher_Niklas.pdf
+ * </a>, the features that are not used there have weight 0.
+ */
+public enum EvaluationFeature {
+    /**
+     * Having a 5-in-a-row, that is counted once even if there are more
+     */
+    FIVE_IN_A_ROW("five", 100000),
+    /**
+     * Number of full 4 cell lines, so a 5-in-a-row contains two of them
+     */
+    FOUR_IN_A_ROW("four", 1000),
+    /**
+     * Number of full 3 cell lines
+     */
+    THREE_IN_A_ROW("three", 100),
+    /**
+     * Number of pieces that are not located at edges of the board
+     */
+    CENTER("center", 5),
+    /**
+     * Number of 5 cell lines with 4 pieces and no piece of the other color, that win by putting a piece in the
+     * empty cell
+     */
+    OPEN_FOUR("open.four", 0),
+    /**
+     * Number of 5 cell lines with 3 pieces and no piece of the other color
+     */
+    OPEN_THREE("open.three", 0),
+    /**
+     * Number of the 8 block rotations that make a 5-in-a-row without putting a piece, counted only if there is no
+     * 5-in-a-row
+     */
+    ROTATION_THREAT("rotation.threat", 0);
+
+    /**
+     * Key of feature in weight files
+     */
+    private final String key;
+    /**
+     * Weight of feature if a weight file does not have it
+     */
+    private final int defaultWeight;
+
+    /**
+     * Constructor of evaluation feature
+     *
+     * @param key           key of feature in weight files
+     * @param defaultWeight weight of feature if a weight file does not have it
+     */
+    EvaluationFeature(String key, int defaultWeight) {
+        this.key = key;
+        this.defaultWeight = defaultWeight;
+    }
+
+    /**
+     * Gets key of feature in weight files.
+     *
+     * @return key of feature
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Gets weight of feature if a weight file does not have it.
+     *
+     * @return default weight
+     */
+    public int getDefaultWeight() {
+        return defaultWeight;
+    }
+}
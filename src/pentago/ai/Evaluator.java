@@ -0,0 +1,42 @@
+package pentago.ai;
+
+/**
+ * Heuristic evaluation function that the search uses for utility scores of game states that it does not search
+ * deeper. A game state is given as two cell masks in the layout of {@link pentago.BitBoard}, the cells of the player
+ * that the score is computed for and the cells of its opponent. A greater score is better for the player.
+ * <br>
+ * An evaluator must be antisymmetric, {@code evaluate(p, o) == -evaluate(o, p)} for all masks. The transposition table
+ * keeps scores for one side and negates them for the other side, and it can be shared by players of both sides and of
+ * different games, so an evaluator that scores threats of the player higher than the same threats of the opponent
+ * makes wrong cutoffs without any error. {@link WeightedEvaluator} scores each feature of the player minus the same
+ * feature of the opponent, so it is antisymmetric with any weights.
+ * <br>
+ * An evaluator is shared by all threads of a search, so implementations must be thread safe. The default evaluator is
+ * {@link WeightedEvaluator#DEFAULT}.
+ */
+public interface Evaluator {
+    /**
+     * Computes utility score of a game state for the player of {@code playerMask}. Swapping the masks must negate the
+     * score.
+     *
+     * @param playerMask   cells of the player
+     * @param opponentMask cells of the opponent
+     * @return utility score
+     */
+    int evaluate(long playerMask, long opponentMask);
+
+    /**
+     * Computes utility scores of many game states at once. The search calls it for all children of a game state at
+     * the last level, so an implementation can score them together instead of one by one.
+     *
+     * @param playerMasks   cells of the player of each game state
+     * @param opponentMasks cells of the opponent of each game state
+     * @param count         number of game states
+     * @param scores        buffer that score of game state {@code i} is written to at index {@code i}
+     */
+    default void evaluate(long[] playerMasks, long[] opponentMasks, int count, int[] scores) {
+        for (int i = 0; i < count; i++) {
+            scores[i] = evaluate(playerMasks[i], opponentMasks[i]);
+        }
+    }
+}
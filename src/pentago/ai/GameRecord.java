@@ -0,0 +1,520 @@
+package pentago.ai;
+
+import pentago.BitBoard;
+import pentago.Lines;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary file format of played games, that is written by {@link Writer} and read by {@link Reader} as a stream, so
+ * files of millions of games are appended and parsed without objects for each game or move.
+ * <br>
+ * The file is a header of 2 ints, {@link #MAGIC} and {@link #VERSION}, followed by games. A game is a flags byte with
+ * the result in bits 0 to 1 and bit 2 set if the game has a start position, the start position in 8 bytes if it is
+ * not the empty board, see {@link PositionCodec}, the number of moves in a byte and the moves. Each move is its code
+ * relative to the position before it in a byte, see {@link PositionCodec#encodeMove(long, int)}, and a code that does
+ * not fit in a byte is byte 255 followed by the code minus 255. Only the first few moves of a game can have such a
+ * code. Positions are replayed by the same rule as the search, the block is not rotated after a put that makes a
+ * 5-in-a-row.
+ */
+public final class GameRecord {
+    /**
+     * First int of game record files
+     */
+    static final int MAGIC = 0x50475243;
+    /**
+     * Version of game record file format
+     */
+    static final int VERSION = 1;
+    /**
+     * Result of a game that is not finished
+     */
+    public static final int UNFINISHED = 0;
+    /**
+     * Result of a game that red won
+     */
+    public static final int RED_WIN = 1;
+    /**
+     * Result of a game that black won
+     */
+    public static final int BLACK_WIN = 2;
+    /**
+     * Result of a tie game
+     */
+    public static final int DRAW = 3;
+    /**
+     * Flag of a game with a start position
+     */
+    private static final int START_POSITION_FLAG = 4;
+    /**
+     * Byte that is followed by the rest of a move code that does not fit in a byte
+     */
+    private static final int ESCAPE = 255;
+    /**
+     * Maximum number of moves of a game
+     */
+    private static final int MAX_MOVES = 36;
+    /**
+     * Size of buffers of writer and reader in bytes
+     */
+    private static final int BUFFER_BYTES = 8192;
+    /**
+     * Maximum size of a game in bytes
+     */
+    private static final int MAX_GAME_BYTES = 2 + 8 + 2 * MAX_MOVES;
+
+    /**
+     * Utility class, not instantiable
+     */
+    private GameRecord() {
+    }
+
+    /**
+     * Gets the result of a finished board. A 5-in-a-row of both colors is a draw, the same as the game and
+     * {@link EndgameSolver}.
+     *
+     * @param board board to check
+     * @return result of the game, {@link #UNFINISHED} if board is not finished
+     */
+    public static int getResult(BitBoard board) {
+        boolean redWon = Lines.hasFiveInARow(board.getRedMask());
+        boolean blackWon = Lines.hasFiveInARow(board.getBlackMask());
+        // both colors with a 5-in-a-row is a tie
+        if (redWon != blackWon) {
+            return redWon ? RED_WIN : BLACK_WIN;
+        }
+        return redWon || board.getEmptyMask() == 0 ? DRAW : UNFINISHED;
+    }
+
+    /**
+     * Position that moves of a game are replayed on
+     */
+    private static class Replay {
+        /**
+         * Cells filled by red pieces
+         */
+        private long red;
+        /**
+         * Cells filled by black pieces
+         */
+        private long black;
+
+        /**
+         * Starts replaying from specified position.
+         *
+         * @param position packed position
+         */
+        void reset(long position) {
+            red = PositionCodec.getRedMask(position);
+            black = PositionCodec.getBlackMask(position);
+        }
+
+        /**
+         * Gets empty cells of current position.
+         *
+         * @return mask of empty cells
+         */
+        long getEmptyMask() {
+            return ~(red | black) & (1L << 36) - 1;
+        }
+
+        /**
+         * Applies a move of the player that moves next, red moves next if both colors have the same number of pieces.
+         *
+         * @param move packed move, its cell must be empty
+         */
+        void apply(int move) {
+            long cell = 1L << Move.getCellIndex(move);
+            if (Long.bitCount(red) == Long.bitCount(black)) {
+                red |= cell;
+            } else {
+                black |= cell;
+            }
+            if (!Lines.hasFiveInARow(red) && !Lines.hasFiveInARow(black)) {
+                red = BitBoard.rotate(red, Move.getRotationBlock(move), Move.isClockwise(move));
+                black = BitBoard.rotate(black, Move.getRotationBlock(move), Move.isClockwise(move));
+            }
+        }
+
+        /**
+         * Gets current position.
+         *
+         * @return packed position
+         */
+        long getPosition() {
+            return PositionCodec.encode(red, black);
+        }
+    }
+
+    /**
+     * Writes games to a stream of game record format. Games are written to an internal buffer, that is written to the
+     * stream when it is full and when the writer is flushed or closed.
+     */
+    public static class Writer implements Closeable, Flushable {
+        /**
+         * Stream to write games
+         */
+        private final OutputStream output;
+        /**
+         * Buffer of written bytes
+         */
+        private final byte[] buffer = new byte[BUFFER_BYTES];
+        /**
+         * Number of bytes in buffer
+         */
+        private int length;
+        /**
+         * Position of the game that is written
+         */
+        private final Replay replay = new Replay();
+
+        /**
+         * Constructor of writer that writes the header and then games to specified stream.
+         *
+         * @param output stream to write, it is closed when the writer is closed
+         */
+        public Writer(OutputStream output) {
+            this(output, true);
+        }
+
+        /**
+         * Constructor of writer
+         *
+         * @param output      stream to write, it is closed when the writer is closed
+         * @param writeHeader {@code true} if the header is written first, {@code false} otherwise
+         */
+        private Writer(OutputStream output, boolean writeHeader) {
+            this.output = output;
+            if (writeHeader) {
+                writeInt(MAGIC);
+                writeInt(VERSION);
+            }
+        }
+
+        /**
+         * Opens specified file to append games. The header is written if the file does not exist or is empty,
+         * otherwise the header of the file is checked, so games are not appended to another file or version.
+         *
+         * @param file game record file
+         * @return writer that appends to the file
+         * @throws IOException if the file can not be opened or it is not a game record file of this version
+         */
+        public static Writer open(Path file) throws IOException {
+            boolean empty = !Files.exists(file) || Files.size(file) == 0;
+            if (!empty) {
+                Reader.open(file).close();
+            }
+            return new Writer(Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND),
+                    empty);
+        }
+
+        /**
+         * Writes a game from the empty board.
+         *
+         * @param moves  packed moves of the game, see {@link Move}
+         * @param count  number of moves
+         * @param result result of the game, e.g. {@link #RED_WIN}
+         * @throws IOException if the stream can not be written
+         */
+        public void write(int[] moves, int count, int result) throws IOException {
+            write(0, moves, count, result);
+        }
+
+        /**
+         * Writes a game from specified start position.
+         *
+         * @param startPosition packed position before the first move, see {@link PositionCodec}
+         * @param moves         packed moves of the game, see {@link Move}
+         * @param count         number of moves
+         * @param result        result of the game, e.g. {@link #RED_WIN}
+         * @throws IOException              if the stream can not be written
+         * @throws IllegalArgumentException if a move is not valid on its position
+         */
+        public void write(long startPosition, int[] moves, int count, int result) throws IOException {
+            if (count > MAX_MOVES || result < UNFINISHED || result > DRAW) {
+                throw new IllegalArgumentException("Invalid game of " + count + " moves with result " + result);
+            }
+            if (length + MAX_GAME_BYTES > buffer.length) {
+                flushBuffer();
+            }
+            replay.reset(startPosition);
+            int start = length;
+            buffer[length++] = (byte) (result | (startPosition != 0 ? START_POSITION_FLAG : 0));
+            if (startPosition != 0) {
+                writeInt((int) (startPosition >>> 32));
+                writeInt((int) startPosition);
+            }
+            buffer[length++] = (byte) count;
+            for (int i = 0; i < count; i++) {
+                long empty = replay.getEmptyMask();
+                if ((empty & 1L << Move.getCellIndex(moves[i])) == 0) {
+                    length = start;
+                    throw new IllegalArgumentException("Move " + i + " puts on a filled cell");
+                }
+                int code = PositionCodec.encodeMove(empty, moves[i]);
+                if (code >= ESCAPE) {
+                    buffer[length++] = (byte) ESCAPE;
+                    code -= ESCAPE;
+                }
+                buffer[length++] = (byte) code;
+                replay.apply(moves[i]);
+            }
+        }
+
+        /**
+         * Writes an int to buffer in big-endian order.
+         *
+         * @param value int to write
+         */
+        private void writeInt(int value) {
+            buffer[length++] = (byte) (value >>> 24);
+            buffer[length++] = (byte) (value >>> 16);
+            buffer[length++] = (byte) (value >>> 8);
+            buffer[length++] = (byte) value;
+        }
+
+        /**
+         * Writes buffer to the stream and empties it.
+         *
+         * @throws IOException if the stream can not be written
+         */
+        private void flushBuffer() throws IOException {
+            output.write(buffer, 0, length);
+            length = 0;
+        }
+
+        /**
+         * Writes buffered games to the stream and flushes it.
+         *
+         * @throws IOException if the stream can not be written
+         */
+        @Override
+        public void flush() throws IOException {
+            flushBuffer();
+            output.flush();
+        }
+
+        /**
+         * Writes buffered games and closes the stream.
+         *
+         * @throws IOException if the stream can not be written or closed
+         */
+        @Override
+        public void close() throws IOException {
+            try {
+                flushBuffer();
+            } finally {
+                output.close();
+            }
+        }
+    }
+
+    /**
+     * Reads games of a stream of game record format one by one. The moves of the current game are kept in a reusable
+     * array, so reading a game does not create objects.
+     */
+    public static class Reader implements Closeable {
+        /**
+         * Stream to read games
+         */
+        private final InputStream input;
+        /**
+         * Buffer of read bytes
+         */
+        private final byte[] buffer = new byte[BUFFER_BYTES];
+        /**
+         * Index of the next byte in buffer
+         */
+        private int offset;
+        /**
+         * Number of bytes in buffer
+         */
+        private int length;
+        /**
+         * Packed moves of current game
+         */
+        private final int[] moves = new int[MAX_MOVES];
+        /**
+         * Number of moves of current game
+         */
+        private int moveCount;
+        /**
+         * Result of current game
+         */
+        private int result;
+        /**
+         * Start position of current game
+         */
+        private long startPosition;
+        /**
+         * Position of current game after its last move
+         */
+        private final Replay replay = new Replay();
+
+        /**
+         * Constructor of reader that reads the header and then games of specified stream.
+         *
+         * @param input stream to read, it is closed when the reader is closed
+         * @throws IOException if the stream can not be read or it is not a game record stream
+         */
+        public Reader(InputStream input) throws IOException {
+            this.input = input;
+            if (readInt() != MAGIC || readInt() != VERSION) {
+                throw new IOException("Not a game record file");
+            }
+        }
+
+        /**
+         * Opens specified file to read games.
+         *
+         * @param file game record file
+         * @return reader of the file
+         * @throws IOException if the file can not be read or it is not a game record file
+         */
+        public static Reader open(Path file) throws IOException {
+            InputStream input = Files.newInputStream(file);
+            try {
+                return new Reader(input);
+            } catch (IOException e) {
+                input.close();
+                throw e;
+            }
+        }
+
+        /**
+         * Reads the next game.
+         *
+         * @return {@code true} if a game is read, {@code false} at the end of stream
+         * @throws IOException if the stream can not be read or it has an invalid game
+         */
+        public boolean next() throws IOException {
+            if (offset == length && !fillBuffer()) {
+                return false;
+            }
+            int flags = readByte();
+            result = flags & 0x3;
+            startPosition = 0;
+            if ((flags & START_POSITION_FLAG) != 0) {
+                startPosition = (long) readInt() << 32 | readInt() & 0xFFFFFFFFL;
+            }
+            moveCount = readByte();
+            if (moveCount > MAX_MOVES) {
+                throw new IOException("Invalid game of " + moveCount + " moves");
+            }
+            try {
+                replay.reset(startPosition);
+                for (int i = 0; i < moveCount; i++) {
+                    int code = readByte();
+                    if (code == ESCAPE) {
+                        code += readByte();
+                    }
+                    moves[i] = PositionCodec.decodeMove(replay.getEmptyMask(), code);
+                    replay.apply(moves[i]);
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Invalid game", e);
+            }
+            return true;
+        }
+
+        /**
+         * Gets number of moves of current game.
+         *
+         * @return number of moves
+         */
+        public int getMoveCount() {
+            return moveCount;
+        }
+
+        /**
+         * Gets a move of current game.
+         *
+         * @param index index of move, from 0 to number of moves
+         * @return packed move, see {@link Move}
+         */
+        public int getMove(int index) {
+            return moves[index];
+        }
+
+        /**
+         * Gets result of current game.
+         *
+         * @return result, e.g. {@link #RED_WIN}
+         */
+        public int getResult() {
+            return result;
+        }
+
+        /**
+         * Gets start position of current game.
+         *
+         * @return packed position before the first move, 0 for the empty board
+         */
+        public long getStartPosition() {
+            return startPosition;
+        }
+
+        /**
+         * Gets position of current game after its last move.
+         *
+         * @return packed position
+         */
+        public long getEndPosition() {
+            return replay.getPosition();
+        }
+
+        /**
+         * Reads an unsigned byte.
+         *
+         * @return byte in range 0 to 255
+         * @throws IOException if the stream can not be read or it ends
+         */
+        private int readByte() throws IOException {
+            if (offset == length && !fillBuffer()) {
+                throw new EOFException("Truncated game record");
+            }
+            return buffer[offset++] & 0xFF;
+        }
+
+        /**
+         * Reads an int in big-endian order.
+         *
+         * @return read int
+         * @throws IOException if the stream can not be read or it ends
+         */
+        private int readInt() throws IOException {
+            return readByte() << 24 | readByte() << 16 | readByte() << 8 | readByte();
+        }
+
+        /**
+         * Reads the next bytes of the stream to buffer.
+         *
+         * @return {@code true} if a byte is read, {@code false} at the end of stream
+         * @throws IOException if the stream can not be read
+         */
+        private boolean fillBuffer() throws IOException {
+            int read = input.read(buffer, 0, buffer.length);
+            offset = 0;
+            length = Math.max(read, 0);
+            return read > 0;
+        }
+
+        /**
+         * Closes the stream.
+         *
+         * @throws IOException if the stream can not be closed
+         */
+        @Override
+        public void close() throws IOException {
+            input.close();
+        }
+    }
+}
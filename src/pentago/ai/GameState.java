@@ -1,20 +1,17 @@
 package pentago.ai;
 
-import pentago.Board;
-import pentago.MoveStringConverter;
+import pentago.BitBoard;
 import pentago.Player;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
- * Keeps game state in Minimax computations.
+ * Keeps game state in Minimax computations. A single game state is used for the whole search, moves are applied in
+ * place and undone in reverse order when the search returns from a child, so no objects are created per child.
  */
 class GameState {
     /**
      * Board state at this level
      */
-    private Board board;
+    private BitBoard board;
     /**
      * utility score of this game state
      */
@@ -32,9 +29,37 @@ class GameState {
      */
     private Player opponent;
     /**
-     * Chosen move for this game state
+     * Chosen packed move for this game state
+     */
+    private int move = Move.NONE;
+    /**
+     * Counts of 5 cell lines of board that are updated with every applied and undone move, for win checks
+     */
+    private IncrementalEvaluator evaluator;
+    /**
+     * Heuristic evaluation function of utility scores
      */
-    private String[] move;
+    private Evaluator heuristic;
+    /**
+     * Boards that moves of current game state lead to, used for finding distinct moves
+     */
+    private PositionSet positions = new PositionSet();
+    /**
+     * Number of applied moves that are not undone
+     */
+    private int appliedCount;
+    /**
+     * Determines if the block of each applied move was rotated
+     */
+    private boolean[] rotatedHistory = new boolean[36];
+    /**
+     * Cells of the scored player in each child of {@link #scoreChildren(int[], int, int, Player, int[])}
+     */
+    private long[] playerMasks = new long[Move.MAX_MOVES];
+    /**
+     * Cells of the opponent of scored player in each child of {@link #scoreChildren(int[], int, int, Player, int[])}
+     */
+    private long[] opponentMasks = new long[Move.MAX_MOVES];
 
     /**
      * Constructor of game state
@@ -44,11 +69,40 @@ class GameState {
      * @param turn      current player
      * @param opponent  opponent player
      */
-    GameState(Board board, boolean maxPlayer, Player turn, Player opponent) {
-        this.board = new Board(board);
+    GameState(BitBoard board, boolean maxPlayer, Player turn, Player opponent) {
+        this(board, maxPlayer, turn, opponent, WeightedEvaluator.DEFAULT);
+    }
+
+    /**
+     * Constructor of game state with specified evaluation function
+     *
+     * @param board     game state board
+     * @param maxPlayer max player
+     * @param turn      current player
+     * @param opponent  opponent player
+     * @param heuristic evaluation function of utility scores
+     */
+    GameState(BitBoard board, boolean maxPlayer, Player turn, Player opponent, Evaluator heuristic) {
+        this.board = new BitBoard(board);
         this.maxPlayer = maxPlayer;
         this.turn = turn;
         this.opponent = opponent;
+        this.evaluator = new IncrementalEvaluator(board);
+        this.heuristic = heuristic;
+    }
+
+    /**
+     * Copy constructor of game state, applied moves of the copy can not be undone.
+     *
+     * @param gameState game state to copy
+     */
+    GameState(GameState gameState) {
+        this.board = new BitBoard(gameState.board);
+        this.maxPlayer = gameState.maxPlayer;
+        this.turn = gameState.turn;
+        this.opponent = gameState.opponent;
+        this.evaluator = new IncrementalEvaluator(gameState.evaluator);
+        this.heuristic = gameState.heuristic;
     }
 
     /**
@@ -75,7 +129,7 @@ class GameState {
      * @return {@code true} if the game finished, {@code false} otherwise
      */
     boolean isGameOver() {
-        return board.isGameFinished();
+        return board.getEmptyMask() == 0 || evaluator.hasWinner();
     }
 
     /**
@@ -92,10 +146,40 @@ class GameState {
      *
      * @return current board state
      */
-    Board getBoard() {
+    BitBoard getBoard() {
         return board;
     }
 
+    /**
+     * Finds the symmetry that gives the smallest Zobrist hash of current game state. All symmetric game states have
+     * the same smallest hash, so it is the key of game state in the transposition table.
+     *
+     * @return symmetry in range 0 to 7, see {@link Symmetry}
+     */
+    int getCanonicalSymmetry() {
+        boolean redTurn = BitBoard.isRed(turn.getPiece());
+        int canonicalSymmetry = 0;
+        long canonicalHash = Zobrist.hash(board, redTurn, 0);
+        for (int symmetry = 1; symmetry < Symmetry.COUNT; symmetry++) {
+            long hash = Zobrist.hash(board, redTurn, symmetry);
+            if (hash < canonicalHash) {
+                canonicalSymmetry = symmetry;
+                canonicalHash = hash;
+            }
+        }
+        return canonicalSymmetry;
+    }
+
+    /**
+     * Gets Zobrist hash of current board transformed by specified symmetry and the player that moves next.
+     *
+     * @param symmetry symmetry in range 0 to 7, see {@link Symmetry}
+     * @return hash of game state
+     */
+    long getHash(int symmetry) {
+        return Zobrist.hash(board, BitBoard.isRed(turn.getPiece()), symmetry);
+    }
+
     /**
      * Gets current player.
      *
@@ -106,109 +190,244 @@ class GameState {
     }
 
     /**
-     * Apply specified move that contains a move string and a rotation string. If applying move causes finishing the
-     * game, ignores the rotation;
+     * Apply specified packed move in place, see {@link Move}. If putting the piece causes finishing the game, ignores
+     * the rotation; Line counts are updated for the put piece and the cells that the rotation changes. Then the other
+     * player moves next and max and min player are swapped.
+     *
+     * @param theMove packed move
+     */
+    void apply(int theMove) {
+        int cellIndex = Move.getCellIndex(theMove);
+        boolean red = BitBoard.isRed(turn.getPiece());
+        board.putPiece(turn.getPiece(), cellIndex);
+        evaluator.add(cellIndex, red);
+        boolean rotated = !evaluator.hasWinner();
+        if (rotated) {
+            rotate(Move.getRotationBlock(theMove), Move.isClockwise(theMove));
+        }
+        rotatedHistory[appliedCount++] = rotated;
+        swapTurn();
+    }
+
+    /**
+     * Undoes specified packed move that is the last applied move, by rotating the block in reverse direction and
+     * removing the put piece.
      *
-     * @param theMove an array containing move and rotation string
+     * @param theMove packed move
      */
-    void apply(String[] theMove) {
-        move = theMove;
-        int[] numbers = MoveStringConverter.convertNextMoveToBoardNumber(theMove[0]);
-        board.putPiece(turn.getPiece(), numbers[0], numbers[1]);
-        if (!board.hasWinner()) {
-            board.rotate(MoveStringConverter.getBlockNumberFromRotationString(theMove[1]), MoveStringConverter.getRotationFromRotationString(theMove[1]));
+    void undo(int theMove) {
+        swapTurn();
+        appliedCount--;
+        if (rotatedHistory[appliedCount]) {
+            rotate(Move.getRotationBlock(theMove), !Move.isClockwise(theMove));
         }
+        int cellIndex = Move.getCellIndex(theMove);
+        board.removePiece(cellIndex);
+        evaluator.remove(cellIndex, BitBoard.isRed(turn.getPiece()));
+    }
+
+    /**
+     * Rotates specified block of board and updates line counts of the changed cells.
+     *
+     * @param blockNumber block to rotate
+     * @param clockwise   {@code true} if the rotation is clockwise, {@code false} otherwise
+     */
+    private void rotate(int blockNumber, boolean clockwise) {
+        long red = board.getRedMask();
+        long black = board.getBlackMask();
+        board.rotate(blockNumber, clockwise);
+        evaluator.update(red, board.getRedMask(), true);
+        evaluator.update(black, board.getBlackMask(), false);
+    }
+
+    /**
+     * Gives turn to the other player and swaps max and min player.
+     */
+    private void swapTurn() {
         Player temp = turn;
         turn = opponent;
         opponent = temp;
+        maxPlayer = !maxPlayer;
     }
 
     /**
-     * Gets all available moves in current state of the game.
+     * Fills specified buffer with all available moves in current state of the game. Moves of each empty cell are
+     * generated in order of blocks, clockwise rotation before anti-clockwise rotation.
      *
-     * @return all available moves
+     * @param moves buffer to fill, with at least {@link Move#MAX_MOVES} length
+     * @return number of available moves
      */
-    List<String[]> getAvailableMoves() {
-        List<String[]> result = new ArrayList<>();
-        List<int[]> emptyCells = board.getEmptyCells();
-        String[] moveStr;
-        String move;
-        for (int[] emptyCell : emptyCells) {
-            move = MoveStringConverter.convertToMoveString(emptyCell[0], emptyCell[1]);
-            for (int i = 0; i < 4; i++) {
-                moveStr = new String[2];
-                moveStr[0] = move;
-                moveStr[1] = MoveStringConverter.convertToRotationString(i + 1, true);
-                result.add(moveStr);
+    int generateMoves(int[] moves) {
+        int count = 0;
+        long empty = board.getEmptyMask();
+        while (empty != 0) {
+            int cellIndex = Long.numberOfTrailingZeros(empty);
+            for (int blockNumber = 1; blockNumber <= 4; blockNumber++) {
+                moves[count++] = Move.create(cellIndex, blockNumber, true);
+                moves[count++] = Move.create(cellIndex, blockNumber, false);
+            }
+            empty &= empty - 1;
+        }
+        return count;
+    }
 
-                moveStr = new String[2];
-                moveStr[0] = move;
-                moveStr[1] = MoveStringConverter.convertToRotationString(i + 1, false);
-                result.add(moveStr);
+    /**
+     * Fills specified buffer with available moves that lead to different game states, one move for each group of
+     * moves with the same result, or with symmetric results if current game state is symmetric. Moves of a group have
+     * the same score, so searching one of them is enough. For example rotating an empty block changes nothing, and a
+     * move that wins by putting the piece ignores its rotation. The first move of each group in order of
+     * {@link #generateMoves(int[])} is kept.
+     *
+     * @param moves buffer to fill, with at least {@link Move#MAX_MOVES} length
+     * @return number of distinct moves
+     */
+    int generateDistinctMoves(int[] moves) {
+        int symmetries = getSymmetries();
+        boolean red = BitBoard.isRed(turn.getPiece());
+        positions.clear();
+        int count = 0;
+        long empty = board.getEmptyMask();
+        while (empty != 0) {
+            int cellIndex = Long.numberOfTrailingZeros(empty);
+            board.putPiece(turn.getPiece(), cellIndex);
+            if (evaluator.isWinningCell(cellIndex, red)) {
+                if (addPosition(symmetries)) {
+                    moves[count++] = Move.create(cellIndex, 1, true);
+                }
+            } else {
+                for (int blockNumber = 1; blockNumber <= 4; blockNumber++) {
+                    board.rotate(blockNumber, true);
+                    if (addPosition(symmetries)) {
+                        moves[count++] = Move.create(cellIndex, blockNumber, true);
+                    }
+                    board.rotate(blockNumber, false);
+                    board.rotate(blockNumber, false);
+                    if (addPosition(symmetries)) {
+                        moves[count++] = Move.create(cellIndex, blockNumber, false);
+                    }
+                    board.rotate(blockNumber, true);
+                }
             }
+            board.removePiece(cellIndex);
+            empty &= empty - 1;
         }
-        return result;
+        return count;
     }
 
     /**
-     * Gets number of all 5-in-a-rows in game board specified player. 5-in-a-row is a state that 5 pieces with same
-     * color was in a sequence in vertical, horizontal or diagonal direction.
+     * Finds symmetries other than identity that do not change current board.
      *
-     * @param player player to check
-     * @return all 5-in-a-row count
+     * @return bit set of symmetries, bit {@code s} is set if symmetry {@code s} does not change the board
      */
-    int get5InARows(Player player) {
-        return board.get5InARows(player.getPiece());
+    private int getSymmetries() {
+        long red = board.getRedMask();
+        long black = board.getBlackMask();
+        int symmetries = 0;
+        for (int symmetry = 1; symmetry < Symmetry.COUNT; symmetry++) {
+            if (Symmetry.transformMask(symmetry, red) == red && Symmetry.transformMask(symmetry, black) == black) {
+                symmetries |= 1 << symmetry;
+            }
+        }
+        return symmetries;
     }
 
     /**
-     * Gets number of all 4-in-a-rows in game board specified player. 4-in-a-row is a state that 4 pieces with same
-     * color was in a sequence in vertical, horizontal or diagonal direction.
+     * Adds current board to the boards that moves of {@link #generateDistinctMoves(int[])} led to. A board is kept as
+     * the smallest of its transforms by specified symmetries, so symmetric boards are added once.
      *
-     * @param player player to check
-     * @return all 4-in-a-row count
+     * @param symmetries bit set of symmetries of the game state before the move
+     * @return {@code true} if the board or a symmetric board was not added before, {@code false} otherwise
      */
-    int get4InARows(Player player) {
-        return board.get4InARows(player.getPiece());
+    private boolean addPosition(int symmetries) {
+        long red = board.getRedMask();
+        long black = board.getBlackMask();
+        long minRed = red;
+        long minBlack = black;
+        while (symmetries != 0) {
+            int symmetry = Integer.numberOfTrailingZeros(symmetries);
+            long transformedRed = Symmetry.transformMask(symmetry, red);
+            long transformedBlack = Symmetry.transformMask(symmetry, black);
+            if (transformedRed < minRed || (transformedRed == minRed && transformedBlack < minBlack)) {
+                minRed = transformedRed;
+                minBlack = transformedBlack;
+            }
+            symmetries &= symmetries - 1;
+        }
+        return positions.add(minRed, minBlack);
     }
 
     /**
-     * Gets number of all 3-in-a-rows in game board specified player. 3-in-a-row is a state that 3 pieces with same
-     * color was in a sequence in vertical, horizontal or diagonal direction.
+     * Gets empty cells that make a 5-in-a-row for the player that moves next or for its opponent.
      *
-     * @param player player to check
-     * @return all 3-in-a-row count
+     * @param forTurn {@code true} for the player that moves next, {@code false} for its opponent
+     * @return mask of cells that make a 5-in-a-row
      */
-    int get3InARows(Player player) {
-        return board.get3InARows(player.getPiece());
+    long getWinningCells(boolean forTurn) {
+        return evaluator.getWinningLines(BitBoard.isRed(turn.getPiece()) == forTurn) & board.getEmptyMask();
     }
 
     /**
-     * Gets all piece count of specified player that was not located at edges of the board.
+     * Computes utility score of current game state for specified player with the evaluation function of game state,
+     * see {@link WeightedEvaluator} for the default heuristics.
      *
-     * @param player player to check
-     * @return all piece at center of board
+     * @param player   player to compute score for
+     * @param opponent opponent of player
+     * @return utility score
      */
-    int getPieceAtCenters(Player player) {
-        return board.getPieceAtCenter(player.getPiece());
+    int computeScore(Player player, Player opponent) {
+        return heuristic.evaluate(board.getMask(player.getPiece()), board.getMask(opponent.getPiece()));
+    }
 
+    /**
+     * Computes utility scores of the game states that specified moves lead to, for specified player. Scores are the
+     * same as applying each move and calling {@link #computeScore(Player, Player)}, but children are built as cell
+     * masks without updating line counts and all of them are scored by a single call to the evaluation function.
+     * Current game state must not be finished.
+     *
+     * @param moves  packed moves of current game state
+     * @param from   index of the first move to score
+     * @param count  number of moves to score
+     * @param player player to compute scores for
+     * @param scores buffer that score of move {@code from + i} is written to at index {@code i}
+     */
+    void scoreChildren(int[] moves, int from, int count, Player player, int[] scores) {
+        boolean red = BitBoard.isRed(turn.getPiece());
+        long turnMask = red ? board.getRedMask() : board.getBlackMask();
+        long otherMask = red ? board.getBlackMask() : board.getRedMask();
+        boolean playerTurn = BitBoard.isRed(player.getPiece()) == red;
+        for (int i = 0; i < count; i++) {
+            int move = moves[from + i];
+            int cellIndex = Move.getCellIndex(move);
+            long turnChild = turnMask | 1L << cellIndex;
+            long otherChild = otherMask;
+            // same as apply, the rotation is ignored if the piece makes a 5-in-a-row
+            if (!evaluator.isWinningCell(cellIndex, red)) {
+                int blockNumber = Move.getRotationBlock(move);
+                boolean clockwise = Move.isClockwise(move);
+                turnChild = BitBoard.rotate(turnChild, blockNumber, clockwise);
+                otherChild = BitBoard.rotate(otherChild, blockNumber, clockwise);
+            }
+            playerMasks[i] = playerTurn ? turnChild : otherChild;
+            opponentMasks[i] = playerTurn ? otherChild : turnChild;
+        }
+        heuristic.evaluate(playerMasks, opponentMasks, count, scores);
     }
 
     /**
-     * Gets chosen move for this game state.
+     * Gets chosen packed move for this game state.
      *
      * @return chosen move for this game state
      */
-    String[] getMove() {
+    int getMove() {
         return move;
     }
 
     /**
-     * sets chosen move for this game state.
+     * sets chosen packed move for this game state.
      *
      * @param move chosen move for this game state
      */
-    void setMove(String[] move) {
+    void setMove(int move) {
         this.move = move;
     }
 }
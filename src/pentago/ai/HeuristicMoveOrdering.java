@@ -0,0 +1,105 @@
+package pentago.ai;
+
+import java.util.Arrays;
+
+/**
+ * Move ordering that sorts moves by these priorities:
+ * <br>
+ * best move of transposition table<br>
+ * moves that make a 5-in-a-row<br>
+ * moves that put a piece in the cell that makes a 5-in-a-row for opponent<br>
+ * the two last moves that caused a cutoff in the same level (killer moves)<br>
+ * other moves by sum of squared depths of their cutoffs in all levels (history heuristic)<br>
+ * Moves with same priority keep order of move generation. A move ordering belongs to a single search thread.
+ */
+class HeuristicMoveOrdering implements MoveOrdering {
+    /**
+     * Priority of the best move of transposition table
+     */
+    private static final int TABLE_MOVE_PRIORITY = 1 << 30;
+    /**
+     * Priority of moves that make a 5-in-a-row
+     */
+    private static final int WIN_PRIORITY = 1 << 29;
+    /**
+     * Priority of moves that block a 5-in-a-row of opponent
+     */
+    private static final int BLOCK_PRIORITY = 1 << 28;
+    /**
+     * Priority of the second killer move, the first killer move is one more
+     */
+    private static final int KILLER_PRIORITY = 1 << 27;
+    /**
+     * Maximum history score, all scores are halved when a score reaches it
+     */
+    private static final int MAX_HISTORY = 1 << 26;
+    /**
+     * Two killer moves of each level, most recent first
+     */
+    private int[][] killers;
+    /**
+     * History score of each cell and rotation, indexed by packed move
+     */
+    private int[] history = new int[512];
+    /**
+     * Reusable sort keys, each key is a negated priority followed by move index and move
+     */
+    private long[] keys = new long[Move.MAX_MOVES];
+
+    /**
+     * Constructor of heuristic move ordering
+     *
+     * @param maxPly maximum level of search
+     */
+    HeuristicMoveOrdering(int maxPly) {
+        killers = new int[maxPly + 1][2];
+        for (int[] plyKillers : killers) {
+            Arrays.fill(plyKillers, Move.NONE);
+        }
+    }
+
+    @Override
+    public void order(GameState gameState, int ply, int[] moves, int count, int tableMove) {
+        long winningCells = gameState.getWinningCells(true);
+        long blockingCells = gameState.getWinningCells(false);
+        int[] plyKillers = killers[ply];
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            long cell = 1L << Move.getCellIndex(move);
+            int priority;
+            if (move == tableMove) {
+                priority = TABLE_MOVE_PRIORITY;
+            } else if ((winningCells & cell) != 0) {
+                priority = WIN_PRIORITY;
+            } else if ((blockingCells & cell) != 0) {
+                priority = BLOCK_PRIORITY;
+            } else if (move == plyKillers[0]) {
+                priority = KILLER_PRIORITY + 1;
+            } else if (move == plyKillers[1]) {
+                priority = KILLER_PRIORITY;
+            } else {
+                priority = history[move];
+            }
+            keys[i] = (long) -priority << 32 | i << 9 | move;
+        }
+        Arrays.sort(keys, 0, count);
+        for (int i = 0; i < count; i++) {
+            moves[i] = (int) keys[i] & 0x1FF;
+        }
+    }
+
+    @Override
+    public void addCutoff(int ply, int depth, int move) {
+        int[] plyKillers = killers[ply];
+        if (plyKillers[0] != move) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = move;
+        }
+        history[move] += depth * depth;
+        if (history[move] >= MAX_HISTORY) {
+            for (int i = 0; i < history.length; i++) {
+                history[i] /= 2;
+            }
+        }
+    }
+}
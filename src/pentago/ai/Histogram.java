@@ -0,0 +1,117 @@
+package pentago.ai;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe histogram of non-negative values with a bucket for each power of two. Bucket 0 counts zero and bucket
+ * {@code i} counts values from {@code 2^(i-1)} to {@code 2^i - 1}, so percentiles are exact to a factor of two with a
+ * fixed memory of 65 counters.
+ */
+public class Histogram {
+    /**
+     * Number of buckets
+     */
+    private static final int BUCKET_COUNT = 65;
+    /**
+     * Number of recorded values in each bucket
+     */
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    /**
+     * Number of recorded values
+     */
+    private final LongAdder count = new LongAdder();
+    /**
+     * Sum of recorded values
+     */
+    private final LongAdder sum = new LongAdder();
+    /**
+     * Greatest recorded value
+     */
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a value, negative values are recorded as zero.
+     *
+     * @param value value to record
+     */
+    public void record(long value) {
+        value = Math.max(value, 0);
+        buckets.incrementAndGet(64 - Long.numberOfLeadingZeros(value));
+        count.increment();
+        sum.add(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Gets number of recorded values.
+     *
+     * @return number of values
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Gets average of recorded values.
+     *
+     * @return average, zero if no value is recorded
+     */
+    public double getMean() {
+        long values = count.sum();
+        return values == 0 ? 0 : (double) sum.sum() / values;
+    }
+
+    /**
+     * Gets greatest recorded value.
+     *
+     * @return greatest value, zero if no value is recorded
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Gets an upper bound of specified percentile, that is the greatest value of the bucket that the percentile falls
+     * in, but not more than the greatest recorded value.
+     *
+     * @param percentile percentile in range 0 to 100
+     * @return upper bound of the percentile, zero if no value is recorded
+     */
+    public long getPercentile(double percentile) {
+        long values = count.sum();
+        long rank = Math.max(1, (long) Math.ceil(values * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                long bucketMax = i == BUCKET_COUNT - 1 ? Long.MAX_VALUE : (1L << i) - 1;
+                return Math.min(bucketMax, max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Gets number of recorded values in specified bucket.
+     *
+     * @param bucket bucket index in range 0 to 64
+     * @return number of values
+     */
+    public long getBucketCount(int bucket) {
+        return buckets.get(bucket);
+    }
+
+    /**
+     * Gets summary of the histogram.
+     *
+     * @return count, mean, median, 99th percentile and greatest value
+     */
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "count=%d mean=%.1f p50<=%d p99<=%d max=%d",
+                getCount(), getMean(), getPercentile(50), getPercentile(99), getMax());
+    }
+}
@@ -0,0 +1,183 @@
+package pentago.ai;
+
+import pentago.BitBoard;
+import pentago.Lines;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the number of pieces of each color in every 5 cell line of the board, and the number of lines that each color
+ * fills completely. Putting or removing a piece updates only the lines that contain its cell and a block rotation
+ * updates only the cells that change, so win checks and winning cells are ready at every game state without scanning
+ * the board. Utility scores are computed by an {@link Evaluator}, that is cheaper than keeping counts of shorter lines.
+ */
+class IncrementalEvaluator {
+    /**
+     * Masks of all 5 cell lines
+     */
+    private static final long[] LINES = Lines.getLines(5);
+    /**
+     * Indexes of lines of {@link #LINES} that contain each cell
+     */
+    private static final int[][] CELL_LINES = new int[36][];
+
+    static {
+        for (int cellIndex = 0; cellIndex < 36; cellIndex++) {
+            int cellLineCount = 0;
+            int[] cellLines = new int[LINES.length];
+            for (int i = 0; i < LINES.length; i++) {
+                if ((LINES[i] & (1L << cellIndex)) != 0) {
+                    cellLines[cellLineCount++] = i;
+                }
+            }
+            CELL_LINES[cellIndex] = Arrays.copyOf(cellLines, cellLineCount);
+        }
+    }
+
+    /**
+     * Number of red pieces in each line
+     */
+    private byte[] redCounts = new byte[LINES.length];
+    /**
+     * Number of black pieces in each line
+     */
+    private byte[] blackCounts = new byte[LINES.length];
+    /**
+     * Number of lines filled by red pieces
+     */
+    private int redFullLines;
+    /**
+     * Number of lines filled by black pieces
+     */
+    private int blackFullLines;
+
+    /**
+     * Constructor of evaluator that counts pieces of specified board.
+     *
+     * @param board board to count
+     */
+    IncrementalEvaluator(BitBoard board) {
+        update(0, board.getRedMask(), true);
+        update(0, board.getBlackMask(), false);
+    }
+
+    /**
+     * Copy constructor of evaluator
+     *
+     * @param evaluator evaluator to copy
+     */
+    IncrementalEvaluator(IncrementalEvaluator evaluator) {
+        this.redCounts = evaluator.redCounts.clone();
+        this.blackCounts = evaluator.blackCounts.clone();
+        this.redFullLines = evaluator.redFullLines;
+        this.blackFullLines = evaluator.blackFullLines;
+    }
+
+    /**
+     * Counts a piece that is put in specified cell.
+     *
+     * @param cellIndex bit index of cell, see {@link BitBoard}
+     * @param red       {@code true} if the piece is red, {@code false} if it is black
+     */
+    void add(int cellIndex, boolean red) {
+        byte[] counts = red ? redCounts : blackCounts;
+        int fullLines = 0;
+        for (int line : CELL_LINES[cellIndex]) {
+            if (++counts[line] == 5) {
+                fullLines++;
+            }
+        }
+        if (red) {
+            redFullLines += fullLines;
+        } else {
+            blackFullLines += fullLines;
+        }
+    }
+
+    /**
+     * Uncounts a piece that is removed from specified cell.
+     *
+     * @param cellIndex bit index of cell, see {@link BitBoard}
+     * @param red       {@code true} if the piece is red, {@code false} if it is black
+     */
+    void remove(int cellIndex, boolean red) {
+        byte[] counts = red ? redCounts : blackCounts;
+        int fullLines = 0;
+        for (int line : CELL_LINES[cellIndex]) {
+            if (counts[line]-- == 5) {
+                fullLines++;
+            }
+        }
+        if (red) {
+            redFullLines -= fullLines;
+        } else {
+            blackFullLines -= fullLines;
+        }
+    }
+
+    /**
+     * Updates counts of one color after its cells change, for example by a block rotation. Only the cells that differ
+     * are uncounted or counted.
+     *
+     * @param before cells of the color before the change
+     * @param after  cells of the color after the change
+     * @param red    {@code true} if the cells are red, {@code false} if they are black
+     */
+    void update(long before, long after, boolean red) {
+        long removed = before & ~after;
+        while (removed != 0) {
+            remove(Long.numberOfTrailingZeros(removed), red);
+            removed &= removed - 1;
+        }
+        long added = after & ~before;
+        while (added != 0) {
+            add(Long.numberOfTrailingZeros(added), red);
+            added &= added - 1;
+        }
+    }
+
+    /**
+     * Checks if putting a piece in specified empty cell makes a 5-in-a-row.
+     *
+     * @param cellIndex bit index of cell, see {@link BitBoard}
+     * @param red       {@code true} if the piece is red, {@code false} if it is black
+     * @return {@code true} if the piece makes a 5-in-a-row, {@code false} otherwise
+     */
+    boolean isWinningCell(int cellIndex, boolean red) {
+        byte[] counts = red ? redCounts : blackCounts;
+        for (int line : CELL_LINES[cellIndex]) {
+            if (counts[line] == 4) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets cells of 5 cell lines that have 4 pieces of specified color and no piece of the other color. Empty cells
+     * of these lines are the cells that make a 5-in-a-row.
+     *
+     * @param red {@code true} for red pieces, {@code false} for black pieces
+     * @return mask of all cells of these lines
+     */
+    long getWinningLines(boolean red) {
+        byte[] counts = red ? redCounts : blackCounts;
+        byte[] otherCounts = red ? blackCounts : redCounts;
+        long cells = 0;
+        for (int line = 0; line < LINES.length; line++) {
+            if (counts[line] == 4 && otherCounts[line] == 0) {
+                cells |= LINES[line];
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Checks if any color has a 5-in-a-row.
+     *
+     * @return {@code true} if board has a winner, {@code false} otherwise
+     */
+    boolean hasWinner() {
+        return redFullLines > 0 || blackFullLines > 0;
+    }
+}
@@ -1,11 +1,16 @@
 package pentago.ai;
 
+import pentago.BitBoard;
 import pentago.Board;
 import pentago.Player;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.time.Duration;
 import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /**
  * Implements the Minimax decision rule.
@@ -13,6 +18,26 @@ import java.util.Random;
  * see <a href="https://en.wikipedia.org/wiki/Minimax">https://en.wikipedia.org/wiki/Minimax</a>
  */
 public class MiniMax {
+    /**
+     * Memory usage of transposition table of alpha-beta search, if table is not specified
+     */
+    private static final long DEFAULT_TABLE_BYTES = 32L * 1024 * 1024;
+    /**
+     * Memory usage of the cache of endgame solver
+     */
+    private static final long ENDGAME_CACHE_BYTES = 16L * 1024 * 1024;
+    /**
+     * Cell number of each block that is a corner of the board
+     */
+    private static final int[] CORNER_CELLS = {1, 3, 7, 9};
+    /**
+     * Cell number of each block that goes to a corner of the board by clockwise rotation of the block
+     */
+    private static final int[] CLOCKWISE_CORNER_CELLS = {7, 1, 9, 3};
+    /**
+     * Cell number of each block that goes to a corner of the board by anti-clockwise rotation of the block
+     */
+    private static final int[] ANTI_CLOCKWISE_CORNER_CELLS = {3, 9, 1, 7};
     /**
      * Maximum level of Minimax checking
      */
@@ -25,6 +50,86 @@ public class MiniMax {
      * Current turn player
      */
     private Player turn;
+    /**
+     * Search mode that chooses the best move
+     */
+    private SearchMode searchMode;
+    /**
+     * Transposition table of alpha-beta search, it keeps search results between runs
+     */
+    private TranspositionTable table;
+    /**
+     * Pool that searches root moves in parallel in alpha-beta search, or {@code null} for single thread search
+     */
+    private ForkJoinPool pool;
+    /**
+     * Policy of move ordering of alpha-beta search
+     */
+    private MoveOrderingPolicy moveOrdering = MoveOrderingPolicy.HEURISTIC;
+    /**
+     * Heuristic evaluation function of utility scores
+     */
+    private Evaluator evaluator = WeightedEvaluator.DEFAULT;
+    /**
+     * Random generator that chooses between equal score moves
+     */
+    private Random random = new Random();
+    /**
+     * Reusable move buffers of Minimax decision rule, one for each level
+     */
+    private int[][] moveBuffers;
+    /**
+     * Reusable buffers of equal score moves of Minimax decision rule, one for each level
+     */
+    private int[][] bestMoveBuffers;
+    /**
+     * Reusable buffer of the scores of children that are leaves
+     */
+    private int[] leafScores = new int[Move.MAX_MOVES];
+    /**
+     * Number of game states searched by all runs, except searches of pondering
+     */
+    private long nodeCount;
+    /**
+     * Maximum number of empty cells that game states are solved exactly, zero if endgame solver is not used
+     */
+    private int endgameThreshold;
+    /**
+     * Exact solver of game states with few empty cells, created when endgame threshold is set
+     */
+    private EndgameSolver endgameSolver;
+    /**
+     * Book of best moves of early game states, or {@code null} if no book is used
+     */
+    private OpeningBook openingBook;
+    /**
+     * Listener of searches, or {@code null}
+     */
+    private SearchListener searchListener;
+    /**
+     * Executor of pondering searches, it has a single daemon thread and is created when pondering starts first
+     */
+    private ExecutorService ponderExecutor;
+    /**
+     * Running pondering search, or {@code null} if not pondering
+     */
+    private AlphaBetaSearch ponderSearch;
+    /**
+     * Best moves of running pondering search
+     */
+    private Future<int[]> ponderResult;
+    /**
+     * Board that pondering search searches, the board after the predicted reply of opponent
+     */
+    private BitBoard ponderBoard;
+    /**
+     * Player that pondering search chooses move for
+     */
+    private Player ponderTurn;
+    /**
+     * Whether pondering search searches to maximum level, its result is the result of a search of the same board
+     */
+    private boolean ponderFixedDepth;
 
     /**
      * Constructor of Minimax
@@ -33,8 +138,130 @@ public class MiniMax {
      * @param players Game players
      */
     public MiniMax(int maxPly, Player[] players) {
+        this(maxPly, players, SearchMode.MINIMAX);
+    }
+
+    /**
+     * Constructor of Minimax with specified search mode
+     *
+     * @param maxPly     Maximum level of Minimax checking
+     * @param players    Game players
+     * @param searchMode search mode that chooses the best move
+     */
+    public MiniMax(int maxPly, Player[] players, SearchMode searchMode) {
+        this(maxPly, players, searchMode, searchMode == SearchMode.ALPHA_BETA
+                ? new TranspositionTable(DEFAULT_TABLE_BYTES) : null);
+    }
+
+    /**
+     * Constructor of Minimax with specified search mode and transposition table. The table can be shared between
+     * Minimax instances, e.g. players of different games. Instances that share a table must use the same
+     * {@link Evaluator}, otherwise scores of different evaluation functions are mixed in the table. Changing the
+     * evaluator by {@link #setEvaluator(Evaluator)} clears the table for all instances that share it.
+     *
+     * @param maxPly     Maximum level of Minimax checking
+     * @param players    Game players
+     * @param searchMode search mode that chooses the best move
+     * @param table      transposition table of alpha-beta search
+     */
+    public MiniMax(int maxPly, Player[] players, SearchMode searchMode, TranspositionTable table) {
         this.maxPly = maxPly;
         this.players = players;
+        this.searchMode = searchMode;
+        this.table = table;
+    }
+
+    /**
+     * Sets number of threads of alpha-beta search. With more than one thread, root moves are searched in parallel by a
+     * dedicated fork/join pool.
+     *
+     * @param threads number of threads
+     */
+    public void setParallelism(int threads) {
+        stopPondering();
+        if (pool != null) {
+            pool.shutdown();
+        }
+        pool = threads > 1 ? new ForkJoinPool(threads) : null;
+    }
+
+    /**
+     * Sets policy of move ordering of alpha-beta search. It changes only the number of searched game states, not the
+     * chosen move.
+     *
+     * @param moveOrdering policy of move ordering
+     */
+    public void setMoveOrdering(MoveOrderingPolicy moveOrdering) {
+        this.moveOrdering = moveOrdering;
+    }
+
+    /**
+     * Sets heuristic evaluation function of utility scores, for example a {@link WeightedEvaluator} that is loaded
+     * from a weight file. Scores of the transposition table are scores of the previous evaluation function, so the
+     * table is cleared. If the table is shared, the evaluator of all instances that share it must be set to the same
+     * evaluation function before any of them searches again.
+     *
+     * @param evaluator evaluation function
+     */
+    public void setEvaluator(Evaluator evaluator) {
+        stopPondering();
+        this.evaluator = evaluator;
+        if (table != null) {
+            table.clear();
+        }
+    }
+
+    /**
+     * Sets maximum number of empty cells that game states are solved exactly by {@link EndgameSolver} instead of
+     * searching. A proven win or draw is played at once, and a proven loss is searched as usual, so the player still
+     * chooses the move that heuristic scores prefer. Solving time grows fast with empty cells, positions with up to 12
+     * empty cells are usually solved in less than a second.
+     *
+     * @param emptyCells maximum number of empty cells, zero for not using endgame solver
+     */
+    public void setEndgameThreshold(int emptyCells) {
+        endgameThreshold = emptyCells;
+        if (emptyCells > 0 && endgameSolver == null) {
+            endgameSolver = new EndgameSolver(ENDGAME_CACHE_BYTES);
+        }
+    }
+
+    /**
+     * Sets opening book that is looked up before searching. A move of the book is played at once.
+     *
+     * @param openingBook opening book, or {@code null} for not using a book
+     */
+    public void setOpeningBook(OpeningBook openingBook) {
+        this.openingBook = openingBook;
+    }
+
+    /**
+     * Sets listener that is notified of each search that chooses a move, e.g. a {@link SearchMetrics}. Moves of
+     * pondering, opening book and endgame solver are not searches and are not reported.
+     *
+     * @param searchListener search listener, or {@code null} for no listener
+     */
+    public void setSearchListener(SearchListener searchListener) {
+        this.searchListener = searchListener;
+    }
+
+    /**
+     * Sets seed of random generator that chooses between equal score moves. With a fixed seed, the same game states
+     * result to the same moves, even if root moves are searched in parallel.
+     *
+     * @param seed seed of random generator
+     */
+    public void setSeed(long seed) {
+        random = new Random(seed);
+    }
+
+    /**
+     * Gets number of game states that all runs searched. Game states that pondering searched are not counted.
+     *
+     * @return number of searched game states
+     */
+    public long getNodeCount() {
+        return nodeCount;
     }
 
     /**
@@ -42,22 +269,326 @@ public class MiniMax {
      *
      * @param board game state
      * @param turn  current player
-     * @return best move for player
+     * @return best move for player, an array containing move and rotation string
      */
     public String[] run(Board board, Player turn) {
-        GameState gameState = new GameState(board, true, turn, getOpponent(turn));
+        int move = chooseMove(board, turn);
+        return new String[]{Move.toMoveString(move), Move.toRotationString(move)};
+    }
+
+    /**
+     * Runs alpha-beta search with iterative deepening for specified time and returns the best move of the deepest
+     * complete iteration. Search depth is limited only by the empty cells of the board, not by the maximum level.
+     *
+     * @param board  game state
+     * @param turn   current player
+     * @param budget time that search can take, search returns soon after it passes
+     * @return best move for player, an array containing move and rotation string
+     */
+    public String[] run(Board board, Player turn, Duration budget) {
+        int move = chooseMove(board, turn, budget);
+        return new String[]{Move.toMoveString(move), Move.toRotationString(move)};
+    }
+
+    /**
+     * Runs Minimax decision rule to choose a move that maximizes turn player score in current state of the game.
+     *
+     * @param board game state
+     * @param turn  current player
+     * @return best packed move for player, see {@link Move}
+     */
+    public int chooseMove(Board board, Player turn) {
+        BitBoard bitBoard = new BitBoard(board);
+        // the book and the solver are checked before a ponder hit, their moves are better than searched moves
+        int knownMove = chooseKnownMove(bitBoard, turn);
+        if (knownMove != Move.NONE) {
+            return knownMove;
+        }
+        int[] ponderMoves = finishPondering(bitBoard, turn, true);
+        if (ponderMoves != null) {
+            return selectBestMove(ponderMoves, ponderMoves.length);
+        }
+        GameState gameState = new GameState(bitBoard, true, turn, getOpponent(turn), evaluator);
+        this.turn = turn;
+        if (searchMode == SearchMode.ALPHA_BETA) {
+            AlphaBetaSearch search = new AlphaBetaSearch(maxPly, table, pool, moveOrdering);
+            search.setListener(searchListener);
+            int[] bestMoves = search.search(gameState, getOpponent(turn));
+            finishSearch(search);
+            return selectBestMove(bestMoves, bestMoves.length);
+        }
+        moveBuffers = new int[maxPly][Move.MAX_MOVES];
+        bestMoveBuffers = new int[maxPly][Move.MAX_MOVES];
+        long start = System.nanoTime();
+        long startNodes = nodeCount;
+        int move = miniMax(gameState, 0).getMove();
+        if (searchListener != null) {
+            SearchStatistics statistics = new SearchStatistics();
+            statistics.nodes = nodeCount - startNodes;
+            statistics.nanos = System.nanoTime() - start;
+            statistics.addIteration(maxPly, statistics.nanos, statistics.nodes);
+            searchListener.searchFinished(statistics);
+        }
+        return move;
+    }
+
+    /**
+     * Runs alpha-beta search with iterative deepening for specified time to choose a move that maximizes turn player
+     * score in current state of the game. The search mode is ignored, and a transposition table is created if this
+     * Minimax does not have one.
+     *
+     * @param board  game state
+     * @param turn   current player
+     * @param budget time that search can take, search returns soon after it passes
+     * @return best packed move for player, see {@link Move}
+     */
+    public int chooseMove(Board board, Player turn, Duration budget) {
+        BitBoard bitBoard = new BitBoard(board);
+        finishPondering(bitBoard, turn, false);
+        int knownMove = chooseKnownMove(bitBoard, turn);
+        if (knownMove != Move.NONE) {
+            return knownMove;
+        }
+        GameState gameState = new GameState(bitBoard, true, turn, getOpponent(turn), evaluator);
         this.turn = turn;
-        return miniMax(gameState, 0).getMove();
+        if (table == null) {
+            table = new TranspositionTable(DEFAULT_TABLE_BYTES);
+        }
+        int maxDepth = Long.bitCount(bitBoard.getEmptyMask());
+        AlphaBetaSearch search = new AlphaBetaSearch(maxDepth, table, pool, moveOrdering);
+        search.setListener(searchListener);
+        int[] bestMoves = search.search(gameState, getOpponent(turn), budget);
+        finishSearch(search);
+        return selectBestMove(bestMoves, bestMoves.length);
+    }
+
+    /**
+     * Counts game states of a finished alpha-beta search and reports its statistics to search listener.
+     *
+     * @param search finished search
+     */
+    private void finishSearch(AlphaBetaSearch search) {
+        nodeCount += search.getNodeCount();
+        if (searchListener != null) {
+            searchListener.searchFinished(search.getStatistics());
+        }
+    }
+
+    /**
+     * Chooses the move of specified board without searching, by opening book or by endgame solver. Pondering is
+     * stopped before the book move is returned or the board is solved.
+     *
+     * @param board board to choose move for
+     * @param turn  player to choose move for
+     * @return packed move of the book or with proven win or draw, or {@link Move#NONE} if the board must be searched
+     */
+    private int chooseKnownMove(BitBoard board, Player turn) {
+        int bookMove = lookupBook(board, turn);
+        if (bookMove != Move.NONE) {
+            stopPondering();
+            return bookMove;
+        }
+        if (!isEndgame(board)) {
+            return Move.NONE;
+        }
+        stopPondering();
+        return solveEndgame(board, turn);
+    }
+
+    /**
+     * Finds the move of specified board in opening book.
+     *
+     * @param board board to find its move
+     * @param turn  player to choose move for
+     * @return packed move of the book, or {@link Move#NONE} if there is no book or the book does not have the board
+     */
+    private int lookupBook(BitBoard board, Player turn) {
+        if (openingBook == null) {
+            return Move.NONE;
+        }
+        return openingBook.lookup(board, BitBoard.isRed(turn.getPiece()));
+    }
+
+    /**
+     * Checks if specified board is solved by endgame solver, that is it has some empty cells but at most endgame
+     * threshold empty cells.
+     *
+     * @param board board to check
+     * @return {@code true} if the board is solved, {@code false} otherwise
+     */
+    private boolean isEndgame(BitBoard board) {
+        int emptyCount = Long.bitCount(board.getEmptyMask());
+        return endgameSolver != null && emptyCount > 0 && emptyCount <= endgameThreshold;
+    }
+
+    /**
+     * Solves specified board exactly if it has at most endgame threshold empty cells.
+     *
+     * @param board board to solve
+     * @param turn  player to choose move for
+     * @return packed move with proven win or draw, or {@link Move#NONE} if board is not solved, it is a loss or it is
+     * full
+     */
+    private int solveEndgame(BitBoard board, Player turn) {
+        if (!isEndgame(board)) {
+            return Move.NONE;
+        }
+        long start = endgameSolver.getNodeCount();
+        int result = endgameSolver.solve(board, BitBoard.isRed(turn.getPiece()));
+        nodeCount += endgameSolver.getNodeCount() - start;
+        return result == EndgameSolver.LOSS ? Move.NONE : endgameSolver.getBestMove();
+    }
+
+    /**
+     * Starts pondering, searching in a background thread while opponent thinks. After specified move of player, it
+     * predicts the reply of opponent by the transposition table and searches the board after the reply to maximum
+     * level. If the next search of player is on that board (a ponder hit), it uses the result of pondering search
+     * and waits for it if it is not finished. Otherwise pondering search is stopped, and results of game states that
+     * it searched remain in the transposition table. It does nothing in Minimax search mode, and it does not ponder a
+     * board that has a move in opening book or that endgame solver solves.
+     *
+     * @param board  board before the move of player
+     * @param player player that moves
+     * @param move   packed move of player
+     */
+    public void startPondering(Board board, Player player, int move) {
+        if (searchMode == SearchMode.ALPHA_BETA) {
+            startPondering(board, player, move, null);
+        }
     }
 
     /**
-     * Minimax execution in specified layer for specified game state.
+     * Starts pondering for a search with time budget, see {@link #startPondering(Board, Player, int)}. The pondering
+     * search deepens until specified time passes or the next search of player starts. The next search of player
+     * always runs, on a ponder hit the levels searched by pondering are found in the transposition table.
+     *
+     * @param board      board before the move of player
+     * @param player     player that moves
+     * @param move       packed move of player
+     * @param ponderTime time that pondering search can take
+     */
+    public void startPondering(Board board, Player player, int move, Duration ponderTime) {
+        stopPondering();
+        if (table == null) {
+            table = new TranspositionTable(DEFAULT_TABLE_BYTES);
+        }
+        Player opponent = getOpponent(player);
+        GameState gameState = new GameState(new BitBoard(board), true, player, opponent, evaluator);
+        gameState.apply(move);
+        if (gameState.isGameOver()) {
+            return;
+        }
+        int reply = predictMove(gameState);
+        if (reply == Move.NONE) {
+            return;
+        }
+        gameState.apply(reply);
+        if (gameState.isGameOver()) {
+            return;
+        }
+        BitBoard predictedBoard = new BitBoard(gameState.getBoard());
+        if (isEndgame(predictedBoard) || lookupBook(predictedBoard, player) != Move.NONE) {
+            return;
+        }
+        ponderBoard = predictedBoard;
+        ponderTurn = player;
+        ponderFixedDepth = ponderTime == null;
+        int maxDepth = ponderFixedDepth ? maxPly : Long.bitCount(ponderBoard.getEmptyMask());
+        AlphaBetaSearch search = new AlphaBetaSearch(maxDepth, table, pool, moveOrdering);
+        GameState ponderState = new GameState(ponderBoard, true, player, opponent, evaluator);
+        if (ponderExecutor == null) {
+            ponderExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "pentago-ponder");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        ponderSearch = search;
+        ponderResult = ponderExecutor.submit(() -> search.search(ponderState, opponent, ponderTime));
+    }
+
+    /**
+     * Stops pondering search and waits for it to return. It does nothing if not pondering.
+     */
+    public void stopPondering() {
+        if (ponderSearch != null) {
+            ponderSearch.stop();
+            waitForPondering();
+        }
+    }
+
+    /**
+     * Finishes pondering before a search of specified board. On a ponder hit of a search to maximum level, it waits
+     * for pondering search and returns its result, otherwise it stops pondering search.
+     *
+     * @param board      board to search
+     * @param turn       player to choose move for
+     * @param fixedDepth {@code true} if the search is to maximum level, {@code false} if it has a time budget
+     * @return best moves of pondering search, or {@code null} if its result is not usable
+     */
+    private int[] finishPondering(BitBoard board, Player turn, boolean fixedDepth) {
+        if (ponderSearch == null) {
+            return null;
+        }
+        boolean hit = fixedDepth && ponderFixedDepth && turn == ponderTurn
+                && board.getRedMask() == ponderBoard.getRedMask() && board.getBlackMask() == ponderBoard.getBlackMask();
+        if (!hit) {
+            stopPondering();
+            return null;
+        }
+        return waitForPondering();
+    }
+
+    /**
+     * Waits for pondering search to return and clears it.
+     *
+     * @return best moves of pondering search, or {@code null} if waiting was interrupted
+     */
+    private int[] waitForPondering() {
+        try {
+            return ponderResult.get();
+        } catch (InterruptedException e) {
+            ponderSearch.stop();
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Pondering search failed", e.getCause());
+        } finally {
+            ponderSearch = null;
+            ponderResult = null;
+        }
+    }
+
+    /**
+     * Predicts the move of turn player of specified game state by the best move of transposition table.
+     *
+     * @param gameState game state to predict its move
+     * @return predicted packed move, or {@link Move#NONE} if the table does not have a valid move
+     */
+    private int predictMove(GameState gameState) {
+        int symmetry = gameState.getCanonicalSymmetry();
+        long entry = table.probe(gameState.getHash(symmetry));
+        if (entry == 0 || TranspositionTable.getMove(entry) == Move.NONE) {
+            return Move.NONE;
+        }
+        int move = Symmetry.transformMove(Symmetry.inverse(symmetry), TranspositionTable.getMove(entry));
+        // a hash collision may give a move of another game state
+        if ((gameState.getBoard().getEmptyMask() & 1L << Move.getCellIndex(move)) == 0) {
+            return Move.NONE;
+        }
+        return move;
+    }
+
+    /**
+     * Minimax execution in specified layer for specified game state. Children are searched by applying their move to
+     * the same game state and undoing it afterwards, and only the root chooses a move.
      *
      * @param gameState current game state
      * @param ply       layer of execution
      * @return game state with best score
      */
     private GameState miniMax(GameState gameState, int ply) {
+        nodeCount++;
         if (ply++ == maxPly || gameState.isGameOver()) {
             setScore(gameState);
             return gameState;
@@ -71,27 +602,32 @@ public class MiniMax {
     }
 
     /**
-     * Computes and sets utility score for specified game state. It uses following heuristics based on
-     * <a href="https://www.ke.tu-darmstadt.de/lehre/arbeiten/bachelor/2011/Buescher_Niklas.pdf">
-     * https://www.ke.tu-darmstadt.de/lehre/arbeiten/bachelor/2011/Buescher_Niklas.pdf
-     * </a>:
-     * <br>
-     * 5-in-a-row 100,000<br>
-     * 4-in-a-row 1,000<br>
-     * 3-in-a-row 100<br>
-     * piece in center 5<br>
-     * piece at board 0<br>
+     * Computes and sets utility score for specified game state. See {@link GameState#computeScore(Player, Player)}.
      *
      * @param gameState game state to compute utility score
      */
     private void setScore(GameState gameState) {
-        int fiveInARowCount = gameState.get5InARows(turn) - gameState.get5InARows(getOpponent(turn));
-        int fourInARowCount = gameState.get4InARows(turn) - gameState.get4InARows(getOpponent(turn));
-        int threeInARowCount = gameState.get3InARows(turn) - gameState.get3InARows(getOpponent(turn));
-        int pieceAtCenterCount = gameState.getPieceAtCenters(turn) - gameState.getPieceAtCenters(getOpponent(turn));
+        gameState.setUtility(gameState.computeScore(turn, getOpponent(turn)));
+    }
 
-        int score = fiveInARowCount * 100000 + fourInARowCount * 1000 + threeInARowCount * 100 + pieceAtCenterCount * 5;
-        gameState.setUtility(score);
+    /**
+     * Scores all children of specified game state in a single batch if they are leaves, that is if the game state is
+     * at the last level. See {@link GameState#scoreChildren(int[], int, int, Player, int[])}.
+     *
+     * @param gameState current game state
+     * @param ply       level of children
+     * @param moves     packed moves of the game state
+     * @param count     number of moves
+     * @return {@code true} if scores of children are in the leaf score buffer, {@code false} if children are not
+     * leaves
+     */
+    private boolean scoreLeaves(GameState gameState, int ply, int[] moves, int count) {
+        if (ply != maxPly) {
+            return false;
+        }
+        gameState.scoreChildren(moves, 0, count, turn, leafScores);
+        nodeCount += count;
+        return true;
     }
 
     /**
@@ -102,25 +638,33 @@ public class MiniMax {
      */
     private void getMax(GameState gameState, int ply) {
         int bestScore = Integer.MIN_VALUE;
-        List<String[]> bestMoves = new ArrayList<>();
-
-        Player opponent = getOpponent(gameState.getTurn());
-        List<String[]> availableMoves = gameState.getAvailableMoves();
-        for (String[] theMove : availableMoves) {
-            GameState child = new GameState(gameState.getBoard(), !gameState.isMaxPlayer(), gameState.getTurn(), opponent);
-            child.apply(theMove);
-
-            miniMax(child, ply);
-
-            if (child.getUtility() > bestScore) {
-                bestScore = child.getUtility();
-                bestMoves = new ArrayList<>();
-                bestMoves.add(theMove);
-            } else if (child.getUtility() == bestScore) {
-                bestMoves.add(theMove);
+        int[] bestMoves = bestMoveBuffers[ply - 1];
+        int bestCount = 0;
+
+        int[] availableMoves = moveBuffers[ply - 1];
+        int count = gameState.generateDistinctMoves(availableMoves);
+        boolean leaves = scoreLeaves(gameState, ply, availableMoves, count);
+        for (int i = 0; i < count; i++) {
+            int utility;
+            if (leaves) {
+                utility = leafScores[i];
+            } else {
+                gameState.apply(availableMoves[i]);
+                utility = miniMax(gameState, ply).getUtility();
+                gameState.undo(availableMoves[i]);
+            }
+
+            if (utility > bestScore) {
+                bestScore = utility;
+                bestCount = 0;
+                bestMoves[bestCount++] = availableMoves[i];
+            } else if (utility == bestScore) {
+                bestMoves[bestCount++] = availableMoves[i];
             }
         }
-        gameState.setMove(selectBestMove(bestMoves));
+        if (ply == 1) {
+            gameState.setMove(selectBestMove(bestMoves, bestCount));
+        }
         gameState.setUtility(bestScore);
     }
 
@@ -133,25 +677,33 @@ public class MiniMax {
      */
     private void getMin(GameState gameState, int ply) {
         int bestScore = Integer.MAX_VALUE;
-        List<String[]> bestMoves = new ArrayList<>();
-
-        Player opponent = getOpponent(gameState.getTurn());
-        List<String[]> availableMoves = gameState.getAvailableMoves();
-        for (String[] theMove : availableMoves) {
-            GameState child = new GameState(gameState.getBoard(), !gameState.isMaxPlayer(), gameState.getTurn(), opponent);
-            child.apply(theMove);
-
-            miniMax(child, ply);
-
-            if (child.getUtility() < bestScore) {
-                bestScore = child.getUtility();
-                bestMoves = new ArrayList<>();
-                bestMoves.add(theMove);
-            } else if (child.getUtility() == bestScore) {
-                bestMoves.add(theMove);
+        int[] bestMoves = bestMoveBuffers[ply - 1];
+        int bestCount = 0;
+
+        int[] availableMoves = moveBuffers[ply - 1];
+        int count = gameState.generateDistinctMoves(availableMoves);
+        boolean leaves = scoreLeaves(gameState, ply, availableMoves, count);
+        for (int i = 0; i < count; i++) {
+            int utility;
+            if (leaves) {
+                utility = leafScores[i];
+            } else {
+                gameState.apply(availableMoves[i]);
+                utility = miniMax(gameState, ply).getUtility();
+                gameState.undo(availableMoves[i]);
+            }
+
+            if (utility < bestScore) {
+                bestScore = utility;
+                bestCount = 0;
+                bestMoves[bestCount++] = availableMoves[i];
+            } else if (utility == bestScore) {
+                bestMoves[bestCount++] = availableMoves[i];
             }
         }
-        gameState.setMove(selectBestMove(bestMoves));
+        if (ply == 1) {
+            gameState.setMove(selectBestMove(bestMoves, bestCount));
+        }
         gameState.setUtility(bestScore);
     }
 
@@ -160,27 +712,27 @@ public class MiniMax {
      * from remain moves.
      *
      * @param bestMoves all moves to choose one
+     * @param count     number of moves
      * @return chosen move
      */
-    private String[] selectBestMove(List<String[]> bestMoves) {
-        if (bestMoves.isEmpty()) {
-            return null;
+    private int selectBestMove(int[] bestMoves, int count) {
+        if (count == 0) {
+            return Move.NONE;
         }
-        if (bestMoves.size() == 1) {
-            return bestMoves.get(0);
+        if (count == 1) {
+            return bestMoves[0];
         }
-        List<String[]> filtered = filterCorners(bestMoves);
-        if (!filtered.isEmpty()) {
-            if (filtered.size() == 1) {
-                return filtered.get(0);
+        int[] filtered = new int[count];
+        int filteredCount = filterCorners(bestMoves, count, filtered);
+        if (filteredCount != 0) {
+            if (filteredCount == 1) {
+                return filtered[0];
             }
-            Random random = new Random();
-            int index = random.nextInt(filtered.size());
-            return filtered.get(index);
+            int index = random.nextInt(filteredCount);
+            return filtered[index];
         } else {
-            Random random = new Random();
-            int index = random.nextInt(bestMoves.size());
-            return bestMoves.get(index);
+            int index = random.nextInt(count);
+            return bestMoves[index];
         }
     }
 
@@ -188,63 +740,36 @@ public class MiniMax {
      * Filters moves that result to corner.
      *
      * @param bestMoves all moves to filter
-     * @return filtered moves
+     * @param count     number of moves
+     * @param result    buffer to fill with filtered moves
+     * @return number of filtered moves
      */
-    private List<String[]> filterCorners(List<String[]> bestMoves) {
-        List<String[]> result = new ArrayList<>();
-        for (String[] move : bestMoves) {
-            if (!moveResultsToCorner(move)) {
-                result.add(move);
+    private int filterCorners(int[] bestMoves, int count, int[] result) {
+        int resultCount = 0;
+        for (int i = 0; i < count; i++) {
+            if (!moveResultsToCorner(bestMoves[i])) {
+                result[resultCount++] = bestMoves[i];
             }
         }
-        return result;
+        return resultCount;
     }
 
     /**
      * Checks if specified move result to corner.
      *
-     * @param move move to check
+     * @param move packed move to check
      * @return {@code true} if move results to corder, {@code false} otherwise
      */
-    private boolean moveResultsToCorner(String[] move) {
-        if (move[1].charAt(0) != move[0].charAt(0)) {
-            switch (move[0].charAt(0)) {
-                case '1':
-                    return move[0].charAt(2) == '1';
-                case '2':
-                    return move[0].charAt(2) == '3';
-                case '3':
-                    return move[0].charAt(2) == '7';
-                case '4':
-                    return move[0].charAt(2) == '9';
-            }
-        } else {
-            switch (move[1].charAt(2)) {
-                case 'c':
-                    switch (move[0].charAt(0)) {
-                        case '1':
-                            return move[0].charAt(2) == '7';
-                        case '2':
-                            return move[0].charAt(2) == '1';
-                        case '3':
-                            return move[0].charAt(2) == '9';
-                        case '4':
-                            return move[0].charAt(2) == '3';
-                    }
-                case 'a':
-                    switch (move[0].charAt(0)) {
-                        case '1':
-                            return move[0].charAt(2) == '3';
-                        case '2':
-                            return move[0].charAt(2) == '9';
-                        case '3':
-                            return move[0].charAt(2) == '1';
-                        case '4':
-                            return move[0].charAt(2) == '7';
-                    }
-            }
+    private boolean moveResultsToCorner(int move) {
+        int blockNumber = Move.getBlockNumber(move);
+        int cellNumber = Move.getCellNumber(move);
+        if (Move.getRotationBlock(move) != blockNumber) {
+            return cellNumber == CORNER_CELLS[blockNumber - 1];
+        }
+        if (Move.isClockwise(move)) {
+            return cellNumber == CLOCKWISE_CORNER_CELLS[blockNumber - 1];
         }
-        return false;
+        return cellNumber == ANTI_CLOCKWISE_CORNER_CELLS[blockNumber - 1];
     }
 
     /**
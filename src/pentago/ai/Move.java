@@ -0,0 +1,124 @@
+package pentago.ai;
+
+import pentago.MoveStringConverter;
+
+/**
+ * Utility class for packed moves. A move of the pentago game is a piece put and a block rotation, and it is packed in
+ * a single {@code int}:
+ * <br>
+ * bits 0 to 5: index of put cell in range 0 to 35, that is {@code (B - 1) * 9 + (C - 1)} for block number B and cell
+ * number C<br>
+ * bits 6 to 7: rotated block number minus 1<br>
+ * bit 8: 1 for clockwise and 0 for anti-clockwise rotation<br>
+ */
+public final class Move {
+    /**
+     * Value that means no move
+     */
+    public static final int NONE = -1;
+    /**
+     * Maximum number of moves in a game state, 36 cells and 8 rotations
+     */
+    static final int MAX_MOVES = 36 * 8;
+
+    /**
+     * Utility class, not instantiable
+     */
+    private Move() {
+    }
+
+    /**
+     * Creates a packed move.
+     *
+     * @param cellIndex     index of put cell in range 0 to 35
+     * @param rotationBlock rotated block number in range 1 to 4
+     * @param clockwise     {@code true} if the rotation is clockwise, {@code false} otherwise
+     * @return packed move
+     */
+    static int create(int cellIndex, int rotationBlock, boolean clockwise) {
+        return cellIndex | (rotationBlock - 1) << 6 | (clockwise ? 1 << 8 : 0);
+    }
+
+    /**
+     * Gets index of put cell of a move.
+     *
+     * @param move packed move
+     * @return index of put cell in range 0 to 35
+     */
+    static int getCellIndex(int move) {
+        return move & 0x3F;
+    }
+
+    /**
+     * Gets block number of put cell of a move.
+     *
+     * @param move packed move
+     * @return block number in range 1 to 4
+     */
+    public static int getBlockNumber(int move) {
+        return getCellIndex(move) / 9 + 1;
+    }
+
+    /**
+     * Gets cell number of put cell of a move.
+     *
+     * @param move packed move
+     * @return cell number in range 1 to 9
+     */
+    public static int getCellNumber(int move) {
+        return getCellIndex(move) % 9 + 1;
+    }
+
+    /**
+     * Gets rotated block number of a move.
+     *
+     * @param move packed move
+     * @return rotated block number in range 1 to 4
+     */
+    public static int getRotationBlock(int move) {
+        return (move >>> 6 & 0x3) + 1;
+    }
+
+    /**
+     * Gets rotation direction of a move.
+     *
+     * @param move packed move
+     * @return {@code true} if the rotation is clockwise, {@code false} otherwise
+     */
+    public static boolean isClockwise(int move) {
+        return (move & 1 << 8) != 0;
+    }
+
+    /**
+     * Converts a move to move string. See {@link MoveStringConverter#convertToMoveString(int, int)}.
+     *
+     * @param move packed move
+     * @return move string
+     */
+    public static String toMoveString(int move) {
+        return MoveStringConverter.convertToMoveString(getBlockNumber(move), getCellNumber(move));
+    }
+
+    /**
+     * Converts a move to rotation string. See {@link MoveStringConverter#convertToRotationString(int, boolean)}.
+     *
+     * @param move packed move
+     * @return rotation string
+     */
+    public static String toRotationString(int move) {
+        return MoveStringConverter.convertToRotationString(getRotationBlock(move), isClockwise(move));
+    }
+
+    /**
+     * Converts move string and rotation string to a packed move.
+     *
+     * @param moveString     move string
+     * @param rotationString rotation string
+     * @return packed move
+     */
+    public static int fromStrings(String moveString, String rotationString) {
+        int[] numbers = MoveStringConverter.convertNextMoveToBoardNumber(moveString);
+        return create((numbers[0] - 1) * 9 + numbers[1] - 1,
+                MoveStringConverter.getBlockNumberFromRotationString(rotationString), rotationString.charAt(2) == 'c');
+    }
+}
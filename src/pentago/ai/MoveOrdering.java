@@ -0,0 +1,27 @@
+package pentago.ai;
+
+/**
+ * Orders moves of a game state before alpha-beta search expands them. Searching good moves first makes cutoffs
+ * happen earlier, so fewer children are searched. An ordering can learn from the moves that caused cutoffs.
+ */
+interface MoveOrdering {
+    /**
+     * Orders moves of specified game state, the move that should be searched first goes to index 0.
+     *
+     * @param gameState game state of the moves
+     * @param ply       level of the game state, root is level 0
+     * @param moves     buffer of moves
+     * @param count     number of moves in buffer
+     * @param tableMove best move of the game state in transposition table, or {@link Move#NONE}
+     */
+    void order(GameState gameState, int ply, int[] moves, int count, int tableMove);
+
+    /**
+     * Records a move that caused a cutoff.
+     *
+     * @param ply   level of the game state of the move
+     * @param depth remaining levels of search below the game state
+     * @param move  packed move that caused the cutoff
+     */
+    void addCutoff(int ply, int depth, int move);
+}
@@ -0,0 +1,38 @@
+package pentago.ai;
+
+/**
+ * Move ordering policies that alpha-beta search of {@link MiniMax} can use. Policies do not change the chosen move
+ * scores, only the number of searched game states.
+ */
+public enum MoveOrderingPolicy {
+    /**
+     * Searches the best move of transposition table first and the other moves in order of move generation.
+     */
+    TABLE_MOVE {
+        @Override
+        MoveOrdering create(int maxPly) {
+            return new TableMoveOrdering();
+        }
+    },
+    /**
+     * Searches the best move of transposition table first, then moves that win or block a win of opponent, then
+     * killer moves of the level and then other moves by history heuristic.
+     * For more information about killer and history heuristics,
+     * see <a href="https://www.chessprogramming.org/Killer_Heuristic">https://www.chessprogramming.org/Killer_Heuristic</a>
+     * and <a href="https://www.chessprogramming.org/History_Heuristic">https://www.chessprogramming.org/History_Heuristic</a>
+     */
+    HEURISTIC {
+        @Override
+        MoveOrdering create(int maxPly) {
+            return new HeuristicMoveOrdering(maxPly);
+        }
+    };
+
+    /**
+     * Creates a move ordering of this policy for a single search thread.
+     *
+     * @param maxPly maximum level of search
+     * @return created move ordering
+     */
+    abstract MoveOrdering create(int maxPly);
+}
@@ -0,0 +1,222 @@
+package pentago.ai;
+
+import pentago.BitBoard;
+import pentago.Board;
+import pentago.Player;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Book of best moves of early game states, that is read from a file through a memory mapped buffer, so the book is
+ * not loaded on the heap and a lookup is a binary search over the file.
+ * <br>
+ * Game states are keyed by the smallest Zobrist hash of their 8 symmetric game states, the same key as the
+ * transposition table, and moves are kept as moves of the game state that has the smallest hash, so a single entry
+ * serves all symmetric game states. The file is a header of 4 ints, that are {@link #MAGIC}, {@link #VERSION}, number
+ * of entries and zero, followed by entries of 12 bytes, a key and a packed move, sorted by key.
+ * Books are written by {@link Writer}.
+ */
+public class OpeningBook {
+    /**
+     * First int of book files
+     */
+    static final int MAGIC = 0x50424F4B;
+    /**
+     * Version of book file format
+     */
+    static final int VERSION = 1;
+    /**
+     * Size of header in bytes
+     */
+    private static final int HEADER_BYTES = 16;
+    /**
+     * Size of each entry in bytes
+     */
+    private static final int ENTRY_BYTES = 12;
+    /**
+     * Mapped content of book file
+     */
+    private final ByteBuffer buffer;
+    /**
+     * Number of entries
+     */
+    private final int size;
+
+    /**
+     * Constructor of opening book over mapped content of a book file
+     *
+     * @param buffer mapped content of book file
+     * @throws IOException if the content is not a valid book
+     */
+    private OpeningBook(ByteBuffer buffer) throws IOException {
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not an opening book file");
+        }
+        this.buffer = buffer;
+        this.size = buffer.getInt(8);
+        if (buffer.limit() != HEADER_BYTES + (long) size * ENTRY_BYTES) {
+            throw new IOException("Truncated opening book file");
+        }
+    }
+
+    /**
+     * Opens specified book file by mapping it to memory. The file is closed when the method returns, the mapping
+     * remains valid.
+     *
+     * @param file book file
+     * @return opened book
+     * @throws IOException if the file can not be read or it is not a valid book
+     */
+    public static OpeningBook open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new OpeningBook(buffer);
+        }
+    }
+
+    /**
+     * Gets number of entries of the book.
+     *
+     * @return number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the book move of specified board.
+     *
+     * @param board board to find its move
+     * @param turn  player that moves next
+     * @return packed move, or {@link Move#NONE} if the book does not have the board
+     */
+    public int lookup(Board board, Player turn) {
+        return lookup(new BitBoard(board), BitBoard.isRed(turn.getPiece()));
+    }
+
+    /**
+     * Finds the book move of specified board.
+     *
+     * @param board   board to find its move
+     * @param redTurn {@code true} if red moves next, {@code false} otherwise
+     * @return packed move, or {@link Move#NONE} if the book does not have the board
+     */
+    int lookup(BitBoard board, boolean redTurn) {
+        int symmetry = getCanonicalSymmetry(board, redTurn);
+        long key = Zobrist.hash(board, redTurn, symmetry);
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long middleKey = buffer.getLong(HEADER_BYTES + middle * ENTRY_BYTES);
+            if (middleKey < key) {
+                low = middle + 1;
+            } else if (middleKey > key) {
+                high = middle - 1;
+            } else {
+                int move = Symmetry.transformMove(Symmetry.inverse(symmetry),
+                        buffer.getInt(HEADER_BYTES + middle * ENTRY_BYTES + 8));
+                // a hash collision may give a move of another game state
+                return (board.getEmptyMask() & 1L << Move.getCellIndex(move)) != 0 ? move : Move.NONE;
+            }
+        }
+        return Move.NONE;
+    }
+
+    /**
+     * Gets book key of specified board, that is the same for all symmetric boards.
+     *
+     * @param board board to get its key
+     * @param turn  player that moves next
+     * @return smallest Zobrist hash of symmetric boards
+     */
+    public static long getKey(Board board, Player turn) {
+        BitBoard bitBoard = new BitBoard(board);
+        boolean redTurn = BitBoard.isRed(turn.getPiece());
+        return Zobrist.hash(bitBoard, redTurn, getCanonicalSymmetry(bitBoard, redTurn));
+    }
+
+    /**
+     * Finds the symmetry that gives the smallest Zobrist hash of specified board.
+     *
+     * @param board   board to find its symmetry
+     * @param redTurn {@code true} if red moves next, {@code false} otherwise
+     * @return symmetry in range 0 to 7, see {@link Symmetry}
+     */
+    private static int getCanonicalSymmetry(BitBoard board, boolean redTurn) {
+        int bestSymmetry = 0;
+        long bestHash = Zobrist.hash(board, redTurn, 0);
+        for (int symmetry = 1; symmetry < Symmetry.COUNT; symmetry++) {
+            long hash = Zobrist.hash(board, redTurn, symmetry);
+            if (hash < bestHash) {
+                bestHash = hash;
+                bestSymmetry = symmetry;
+            }
+        }
+        return bestSymmetry;
+    }
+
+    /**
+     * Collects book moves and writes them to a book file.
+     */
+    public static class Writer {
+        /**
+         * Moves of the game state with the smallest hash, by key
+         */
+        private final Map<Long, Integer> entries = new TreeMap<>();
+
+        /**
+         * Adds the book move of specified board.
+         *
+         * @param board board of the move
+         * @param turn  player that moves next
+         * @param move  packed move, see {@link Move}
+         */
+        public void add(Board board, Player turn, int move) {
+            BitBoard bitBoard = new BitBoard(board);
+            boolean redTurn = BitBoard.isRed(turn.getPiece());
+            int symmetry = getCanonicalSymmetry(bitBoard, redTurn);
+            entries.put(Zobrist.hash(bitBoard, redTurn, symmetry), Symmetry.transformMove(symmetry, move));
+        }
+
+        /**
+         * Gets number of added moves.
+         *
+         * @return number of moves
+         */
+        public int size() {
+            return entries.size();
+        }
+
+        /**
+         * Writes all added moves to specified book file.
+         *
+         * @param file book file, it is replaced if it exists
+         * @throws IOException if the file can not be written
+         */
+        public void write(Path file) throws IOException {
+            try (OutputStream stream = Files.newOutputStream(file);
+                 DataOutputStream output = new DataOutputStream(new BufferedOutputStream(stream))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeInt(entries.size());
+                output.writeInt(0);
+                for (Map.Entry<Long, Integer> entry : entries.entrySet()) {
+                    output.writeLong(entry.getKey());
+                    output.writeInt(entry.getValue());
+                }
+            }
+        }
+    }
+}
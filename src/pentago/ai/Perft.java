@@ -0,0 +1,68 @@
+package pentago.ai;
+
+import pentago.BitBoard;
+import pentago.Board;
+import pentago.Player;
+
+/**
+ * Performance test of move generation. It walks the whole move tree of a game state to a fixed depth with
+ * {@link GameState#generateMoves(int[])}, {@link GameState#apply(int)} and {@link GameState#undo(int)} and counts the
+ * leaf nodes. Node counts show if an engine change altered the move tree, and nodes per second measure raw speed of
+ * move generation.
+ * <br>
+ * Every empty cell with every block rotation is a move, so a move that wins by putting the piece is counted once for
+ * each rotation. The search skips moves with the same or a symmetric result, see
+ * {@link GameState#generateDistinctMoves(int[])}, but perft counts the full move tree. A finished game has no moves,
+ * so it is a leaf only at the last level.
+ * For more information about perft, see <a href="https://www.chessprogramming.org/Perft">https://www.chessprogramming.org/Perft</a>
+ */
+public final class Perft {
+    /**
+     * Utility class, not instantiable
+     */
+    private Perft() {
+    }
+
+    /**
+     * Counts leaf nodes of move tree of specified board to specified depth.
+     *
+     * @param board    board to start from
+     * @param turn     player that moves first
+     * @param opponent opponent of turn player
+     * @param depth    depth of move tree
+     * @return number of leaf nodes
+     */
+    public static long perft(Board board, Player turn, Player opponent, int depth) {
+        GameState gameState = new GameState(new BitBoard(board), true, turn, opponent);
+        return perft(gameState, depth, new int[Math.max(depth, 1)][Move.MAX_MOVES]);
+    }
+
+    /**
+     * Counts leaf nodes of move tree of specified game state to specified depth.
+     *
+     * @param gameState   game state to start from, it is not changed when the method returns
+     * @param depth       remaining depth of move tree
+     * @param moveBuffers reusable move buffers, one for each level
+     * @return number of leaf nodes
+     */
+    private static long perft(GameState gameState, int depth, int[][] moveBuffers) {
+        if (depth == 0) {
+            return 1;
+        }
+        if (gameState.isGameOver()) {
+            return 0;
+        }
+        int[] moves = moveBuffers[depth - 1];
+        int count = gameState.generateMoves(moves);
+        if (depth == 1) {
+            return count;
+        }
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            gameState.apply(moves[i]);
+            nodes += perft(gameState, depth - 1, moveBuffers);
+            gameState.undo(moves[i]);
+        }
+        return nodes;
+    }
+}
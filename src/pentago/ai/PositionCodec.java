@@ -0,0 +1,172 @@
+package pentago.ai;
+
+import pentago.BitBoard;
+
+/**
+ * Utility class for compact binary forms of game states and moves.
+ * <br>
+ * A position is packed in a single {@code long} as a base 3 number with a digit for each cell, 0 for empty, 1 for red
+ * and 2 for black, and the cell of bit index {@code i} (see {@link BitBoard}) is digit {@code i}. The empty board is
+ * 0 and all positions are less than {@code 3^36}, so positions fit in 8 bytes and sort by their cells. The player that
+ * moves next is not kept, red moves first so red moves next if both colors have the same number of pieces.
+ * <br>
+ * A move is coded relative to a position as {@code rank * 8 + rotation}, where rank is the number of empty cells
+ * before the put cell and rotation is bits 6 to 8 of the packed move, see {@link Move}. A code is less than 8 times
+ * the number of empty cells, so it fits in a byte after the first few moves of a game.
+ */
+public final class PositionCodec {
+    /**
+     * Number of positions of a block, {@code 3^9}
+     */
+    private static final int BLOCK_POSITIONS = 19683;
+    /**
+     * Number of all positions, {@code 3^36}
+     */
+    private static final long POSITIONS = (long) BLOCK_POSITIONS * BLOCK_POSITIONS * BLOCK_POSITIONS * BLOCK_POSITIONS;
+    /**
+     * Base 3 value of each 9 bit cell mask, with digit 1 for each cell of the mask
+     */
+    private static final int[] TERNARY = new int[512];
+    /**
+     * Red cells and black cells shifted left by 9 bits of each position of a block
+     */
+    private static final int[] BLOCK_MASKS = new int[BLOCK_POSITIONS];
+
+    static {
+        for (int mask = 0; mask < 512; mask++) {
+            int power = 1;
+            for (int cell = 0; cell < 9; cell++) {
+                if ((mask & 1 << cell) != 0) {
+                    TERNARY[mask] += power;
+                }
+                power *= 3;
+            }
+        }
+        for (int position = 0; position < BLOCK_POSITIONS; position++) {
+            int digits = position;
+            for (int cell = 0; cell < 9; cell++) {
+                int digit = digits % 3;
+                if (digit != 0) {
+                    BLOCK_MASKS[position] |= 1 << cell + (digit - 1) * 9;
+                }
+                digits /= 3;
+            }
+        }
+    }
+
+    /**
+     * Utility class, not instantiable
+     */
+    private PositionCodec() {
+    }
+
+    /**
+     * Packs a board to a position.
+     *
+     * @param board board to pack
+     * @return packed position
+     */
+    public static long encode(BitBoard board) {
+        return encode(board.getRedMask(), board.getBlackMask());
+    }
+
+    /**
+     * Packs cells of each color to a position.
+     *
+     * @param red   mask of cells filled by red pieces
+     * @param black mask of cells filled by black pieces
+     * @return packed position
+     */
+    public static long encode(long red, long black) {
+        long position = 0;
+        for (int shift = 27; shift >= 0; shift -= 9) {
+            position = position * BLOCK_POSITIONS + TERNARY[(int) (red >>> shift) & 0x1FF]
+                    + 2 * TERNARY[(int) (black >>> shift) & 0x1FF];
+        }
+        return position;
+    }
+
+    /**
+     * Unpacks a position to a board.
+     *
+     * @param position packed position
+     * @return board of the position
+     * @throws IllegalArgumentException if the value is not a packed position
+     */
+    public static BitBoard decode(long position) {
+        return new BitBoard(getRedMask(position), getBlackMask(position));
+    }
+
+    /**
+     * Gets cells of a position that are filled by red pieces.
+     *
+     * @param position packed position
+     * @return mask of red cells
+     * @throws IllegalArgumentException if the value is not a packed position
+     */
+    public static long getRedMask(long position) {
+        return getMask(position, 0);
+    }
+
+    /**
+     * Gets cells of a position that are filled by black pieces.
+     *
+     * @param position packed position
+     * @return mask of black cells
+     * @throws IllegalArgumentException if the value is not a packed position
+     */
+    public static long getBlackMask(long position) {
+        return getMask(position, 9);
+    }
+
+    /**
+     * Gets cells of a position that are filled by a color.
+     *
+     * @param position packed position
+     * @param shift    shift of the color in block masks, 0 for red and 9 for black
+     * @return mask of cells of the color
+     */
+    private static long getMask(long position, int shift) {
+        if (position < 0 || position >= POSITIONS) {
+            throw new IllegalArgumentException("Invalid position: " + position);
+        }
+        long mask = 0;
+        for (int blockShift = 0; blockShift < 36; blockShift += 9) {
+            mask |= (long) (BLOCK_MASKS[(int) (position % BLOCK_POSITIONS)] >>> shift & 0x1FF) << blockShift;
+            position /= BLOCK_POSITIONS;
+        }
+        return mask;
+    }
+
+    /**
+     * Codes a move relative to the empty cells of its position.
+     *
+     * @param emptyMask mask of empty cells of the position
+     * @param move      packed move, its cell must be empty
+     * @return move code in range 0 to 8 times the number of empty cells
+     */
+    public static int encodeMove(long emptyMask, int move) {
+        int cellIndex = Move.getCellIndex(move);
+        int rank = Long.bitCount(emptyMask & ((1L << cellIndex) - 1));
+        return rank << 3 | move >>> 6 & 0x7;
+    }
+
+    /**
+     * Gets the packed move of a move code relative to the empty cells of its position.
+     *
+     * @param emptyMask mask of empty cells of the position
+     * @param code      move code
+     * @return packed move, see {@link Move}
+     * @throws IllegalArgumentException if the code is out of range of the position
+     */
+    public static int decodeMove(long emptyMask, int code) {
+        int rank = code >>> 3;
+        if (code < 0 || rank >= Long.bitCount(emptyMask)) {
+            throw new IllegalArgumentException("Invalid move code: " + code);
+        }
+        for (int i = 0; i < rank; i++) {
+            emptyMask &= emptyMask - 1;
+        }
+        return Long.numberOfTrailingZeros(emptyMask) | (code & 0x7) << 6;
+    }
+}
@@ -0,0 +1,58 @@
+package pentago.ai;
+
+/**
+ * Small set of boards that is reused without allocation. It keeps the boards of children of one game state, so its
+ * capacity is twice the maximum number of moves. Boards are kept by open addressing, and clearing the set only starts
+ * a new generation of entries.
+ */
+class PositionSet {
+    /**
+     * Number of entries, a power of two greater than twice of {@link Move#MAX_MOVES}
+     */
+    private static final int CAPACITY = 1024;
+    /**
+     * Red cells of kept boards
+     */
+    private final long[] reds = new long[CAPACITY];
+    /**
+     * Black cells of kept boards
+     */
+    private final long[] blacks = new long[CAPACITY];
+    /**
+     * Generation of each entry, entries of older generations are empty
+     */
+    private final int[] generations = new int[CAPACITY];
+    /**
+     * Current generation
+     */
+    private int generation = 1;
+
+    /**
+     * Removes all boards of the set.
+     */
+    void clear() {
+        generation++;
+    }
+
+    /**
+     * Adds a board to the set.
+     *
+     * @param red   red cells of board
+     * @param black black cells of board
+     * @return {@code true} if the board was not in the set, {@code false} otherwise
+     */
+    boolean add(long red, long black) {
+        long hash = (red * 0x9E3779B97F4A7C15L) ^ (black * 0xC2B2AE3D27D4EB4FL);
+        int index = (int) (hash >>> 54) & (CAPACITY - 1);
+        while (generations[index] == generation) {
+            if (reds[index] == red && blacks[index] == black) {
+                return false;
+            }
+            index = (index + 1) & (CAPACITY - 1);
+        }
+        generations[index] = generation;
+        reds[index] = red;
+        blacks[index] = black;
+        return true;
+    }
+}
@@ -0,0 +1,27 @@
+package pentago.ai;
+
+/**
+ * Listener of searches of {@link MiniMax}. Methods are called by the thread that runs the search, and a listener that
+ * is set to many Minimax instances must be thread-safe. Searches of pondering, opening book moves and endgame solver
+ * moves are not reported.
+ *
+ * @see SearchMetrics
+ */
+public interface SearchListener {
+    /**
+     * Called when an iteration of alpha-beta search completes. Counters of other threads are merged only at the end of
+     * search, so this is called with the depth and time of the iteration only.
+     *
+     * @param depth depth of the iteration
+     * @param nanos time of the iteration in nanoseconds
+     */
+    default void iterationFinished(int depth, long nanos) {
+    }
+
+    /**
+     * Called when a search finishes, with the merged counters of all its threads.
+     *
+     * @param statistics statistics of the search
+     */
+    void searchFinished(SearchStatistics statistics);
+}
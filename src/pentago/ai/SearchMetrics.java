@@ -0,0 +1,202 @@
+package pentago.ai;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Search listener that aggregates statistics of many searches into histograms and totals. It is thread-safe, so a
+ * single instance can be set to Minimax instances of many games, e.g. to watch search time and depth of a service and
+ * to compare them between versions.
+ */
+public class SearchMetrics implements SearchListener {
+    /**
+     * Greatest depth of search, the number of cells of the board
+     */
+    private static final int MAX_DEPTH = 36;
+    /**
+     * Histogram of search time in microseconds
+     */
+    private final Histogram searchMicros = new Histogram();
+    /**
+     * Histogram of searched game states of each search
+     */
+    private final Histogram nodes = new Histogram();
+    /**
+     * Histogram of the deepest complete iteration of each search
+     */
+    private final Histogram depths = new Histogram();
+    /**
+     * Histograms of iteration time in microseconds, indexed by depth
+     */
+    private final Histogram[] iterationMicros = new Histogram[MAX_DEPTH + 1];
+    /**
+     * Total number of interior game states
+     */
+    private final LongAdder interiorNodes = new LongAdder();
+    /**
+     * Total number of moves generated by interior game states
+     */
+    private final LongAdder generatedMoves = new LongAdder();
+    /**
+     * Total number of cutoffs
+     */
+    private final LongAdder cutoffs = new LongAdder();
+    /**
+     * Total number of cutoffs of first moves
+     */
+    private final LongAdder firstMoveCutoffs = new LongAdder();
+    /**
+     * Total number of transposition table probes
+     */
+    private final LongAdder tableProbes = new LongAdder();
+    /**
+     * Total number of transposition table probes that found an entry
+     */
+    private final LongAdder tableHits = new LongAdder();
+
+    /**
+     * Constructor of search metrics
+     */
+    public SearchMetrics() {
+        for (int depth = 0; depth <= MAX_DEPTH; depth++) {
+            iterationMicros[depth] = new Histogram();
+        }
+    }
+
+    /**
+     * Records time of an iteration.
+     *
+     * @param depth depth of the iteration
+     * @param nanos time of the iteration in nanoseconds
+     */
+    @Override
+    public void iterationFinished(int depth, long nanos) {
+        iterationMicros[Math.min(depth, MAX_DEPTH)].record(nanos / 1000);
+    }
+
+    /**
+     * Records statistics of a search.
+     *
+     * @param statistics statistics of the search
+     */
+    @Override
+    public void searchFinished(SearchStatistics statistics) {
+        searchMicros.record(statistics.getNanos() / 1000);
+        nodes.record(statistics.getNodeCount());
+        depths.record(statistics.getDepth());
+        interiorNodes.add(statistics.interiorNodes);
+        generatedMoves.add(statistics.generatedMoves);
+        cutoffs.add(statistics.cutoffs);
+        firstMoveCutoffs.add(statistics.firstMoveCutoffs);
+        tableProbes.add(statistics.tableProbes);
+        tableHits.add(statistics.tableHits);
+    }
+
+    /**
+     * Gets histogram of search time.
+     *
+     * @return histogram of microseconds
+     */
+    public Histogram getSearchTime() {
+        return searchMicros;
+    }
+
+    /**
+     * Gets histogram of searched game states of each search.
+     *
+     * @return histogram of node counts
+     */
+    public Histogram getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Gets histogram of the deepest complete iteration of each search.
+     *
+     * @return histogram of depths
+     */
+    public Histogram getDepth() {
+        return depths;
+    }
+
+    /**
+     * Gets histogram of time of iterations of specified depth.
+     *
+     * @param depth depth of iterations
+     * @return histogram of microseconds
+     */
+    public Histogram getIterationTime(int depth) {
+        return iterationMicros[Math.min(depth, MAX_DEPTH)];
+    }
+
+    /**
+     * Gets average number of moves of interior game states of all searches.
+     *
+     * @return average branching factor
+     */
+    public double getBranchingFactor() {
+        return ratio(generatedMoves.sum(), interiorNodes.sum());
+    }
+
+    /**
+     * Gets ratio of interior game states that a move cut off in all searches.
+     *
+     * @return cutoff rate in range 0 to 1
+     */
+    public double getCutoffRate() {
+        return ratio(cutoffs.sum(), interiorNodes.sum());
+    }
+
+    /**
+     * Gets ratio of cutoffs that the first move made in all searches.
+     *
+     * @return first move cutoff rate in range 0 to 1
+     */
+    public double getFirstMoveCutoffRate() {
+        return ratio(firstMoveCutoffs.sum(), cutoffs.sum());
+    }
+
+    /**
+     * Gets ratio of transposition table probes that found an entry in all searches.
+     *
+     * @return table hit rate in range 0 to 1
+     */
+    public double getTableHitRate() {
+        return ratio(tableHits.sum(), tableProbes.sum());
+    }
+
+    /**
+     * Divides two totals.
+     *
+     * @param dividend total to divide
+     * @param divisor  total to divide by
+     * @return quotient, zero if divisor is zero
+     */
+    private static double ratio(long dividend, long divisor) {
+        return divisor == 0 ? 0 : (double) dividend / divisor;
+    }
+
+    /**
+     * Gets a report of all metrics, a line for each histogram and a line of rates.
+     *
+     * @return multi-line report
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("search us: ").append(searchMicros).append(System.lineSeparator());
+        builder.append("nodes: ").append(nodes).append(System.lineSeparator());
+        builder.append("depth: ").append(depths).append(System.lineSeparator());
+        for (int depth = 1; depth <= MAX_DEPTH; depth++) {
+            if (iterationMicros[depth].getCount() != 0) {
+                builder.append("ply ").append(depth).append(" us: ").append(iterationMicros[depth])
+                        .append(System.lineSeparator());
+            }
+        }
+        builder.append(String.format(Locale.ROOT,
+                "branching %.2f, cutoffs %.1f%%, first move cutoffs %.1f%%, table hits %.1f%%",
+                getBranchingFactor(), 100 * getCutoffRate(), 100 * getFirstMoveCutoffRate(),
+                100 * getTableHitRate()));
+        return builder.toString();
+    }
+}
@@ -0,0 +1,17 @@
+package pentago.ai;
+
+/**
+ * Search modes that {@link MiniMax} can use to choose the best move.
+ */
+public enum SearchMode {
+    /**
+     * Plain Minimax decision rule that expands every child of every game state.
+     */
+    MINIMAX,
+    /**
+     * Minimax decision rule with alpha-beta pruning, iterative deepening and aspiration windows.
+     * For more information about alpha-beta pruning,
+     * see <a href="https://en.wikipedia.org/wiki/Alpha%E2%80%93beta_pruning">https://en.wikipedia.org/wiki/Alpha%E2%80%93beta_pruning</a>
+     */
+    ALPHA_BETA
+}
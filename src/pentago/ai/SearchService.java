@@ -0,0 +1,184 @@
+package pentago.ai;
+
+import pentago.Board;
+import pentago.Player;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Search engine that serves move requests of many games. Requests run on a fixed number of threads with a bounded
+ * queue, and all searches share one {@link TranspositionTable}, so game states that are common between games are
+ * searched once. The table is lock-free and each entry is validated by its hash. Searches do not age the shared table,
+ * so a new request does not make entries of running searches replaceable. The service starts a new table generation
+ * after every {@value #EPOCH_REQUESTS} completed requests instead.
+ * <br>
+ * Admission control keeps the latency of a burst of requests bounded. When more requests are pending than threads,
+ * the search level of new requests is reduced by one for each full round of threads that is waiting before them, down
+ * to a single level. A request that does not fit in the queue is rejected.
+ */
+public class SearchService implements AutoCloseable {
+    /**
+     * Number of completed requests of each generation of the shared table
+     */
+    static final int EPOCH_REQUESTS = 32;
+    /**
+     * Executor of searches, with a fixed number of threads and a bounded queue
+     */
+    private final ThreadPoolExecutor executor;
+    /**
+     * Transposition table shared by all searches
+     */
+    private final TranspositionTable table;
+    /**
+     * Number of search threads
+     */
+    private final int threads;
+    /**
+     * Maximum number of pending requests, that are running or queued
+     */
+    private final int capacity;
+    /**
+     * Number of pending requests
+     */
+    private final AtomicInteger pending = new AtomicInteger();
+    /**
+     * Number of requests that were searched with a reduced level
+     */
+    private final AtomicInteger reducedCount = new AtomicInteger();
+    /**
+     * Number of rejected requests
+     */
+    private final AtomicInteger rejectedCount = new AtomicInteger();
+    /**
+     * Number of completed requests
+     */
+    private final AtomicInteger completedCount = new AtomicInteger();
+
+    /**
+     * Constructor of search service
+     *
+     * @param threads       number of search threads
+     * @param queueCapacity maximum number of requests that wait for a thread
+     * @param tableBytes    memory usage of the shared transposition table
+     */
+    public SearchService(int threads, int queueCapacity, long tableBytes) {
+        this.threads = threads;
+        this.capacity = threads + queueCapacity;
+        this.table = new TranspositionTable(tableBytes, true);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(queueCapacity, 1)), runnable -> {
+            Thread thread = new Thread(runnable, "pentago-search-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Requests the best move of turn player on specified board. The board is copied, so it can change after the
+     * method returns.
+     *
+     * @param board    game board
+     * @param players  game players
+     * @param turn     player to choose move for
+     * @param maxPly   search level without load
+     * @return future of the chosen packed move, see {@link Move}. It fails with {@link RejectedExecutionException} if
+     * the service is full.
+     */
+    public CompletableFuture<Integer> chooseMove(Board board, Player[] players, Player turn, int maxPly) {
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        int load = pending.incrementAndGet();
+        if (load > capacity) {
+            pending.decrementAndGet();
+            rejectedCount.incrementAndGet();
+            result.completeExceptionally(new RejectedExecutionException("Search service is full"));
+            return result;
+        }
+        int ply = getAdmittedPly(maxPly, load);
+        if (ply < maxPly) {
+            reducedCount.incrementAndGet();
+        }
+        Board copy = new Board(board);
+        try {
+            executor.execute(() -> {
+                try {
+                    MiniMax miniMax = new MiniMax(ply, players, SearchMode.ALPHA_BETA, table);
+                    result.complete(miniMax.chooseMove(copy, turn));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    pending.decrementAndGet();
+                    if (completedCount.incrementAndGet() % EPOCH_REQUESTS == 0) {
+                        table.newEpoch();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.decrementAndGet();
+            rejectedCount.incrementAndGet();
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    /**
+     * Gets search level of a request by the number of pending requests when it arrives.
+     *
+     * @param maxPly search level without load
+     * @param load   number of pending requests, including the request
+     * @return search level in range 1 to maximum level
+     */
+    private int getAdmittedPly(int maxPly, int load) {
+        int waitingRounds = (load - 1) / threads;
+        return Math.max(1, maxPly - waitingRounds);
+    }
+
+    /**
+     * Gets number of requests that are running or waiting.
+     *
+     * @return number of pending requests
+     */
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * Gets number of requests that were searched with a reduced level because of load.
+     *
+     * @return number of reduced requests
+     */
+    public int getReducedCount() {
+        return reducedCount.get();
+    }
+
+    /**
+     * Gets number of requests that were rejected because the service was full.
+     *
+     * @return number of rejected requests
+     */
+    public int getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * Gets number of requests that were searched, successfully or not.
+     *
+     * @return number of completed requests
+     */
+    public int getCompletedCount() {
+        return completedCount.get();
+    }
+
+    /**
+     * Stops search threads after the pending requests.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,217 @@
+package pentago.ai;
+
+import java.util.Arrays;
+
+/**
+ * Counters of a single search. Each thread of search counts in its own statistics without synchronization, and the
+ * statistics of threads are merged when the search finishes, so counting adds only a field increment to the searched
+ * game states.
+ * <br>
+ * Interior game states are the searched game states that generated their moves, that is neither leaves nor game
+ * states that a transposition table entry cut off.
+ */
+public class SearchStatistics {
+    /**
+     * Number of searched game states
+     */
+    long nodes;
+    /**
+     * Number of interior game states, that generated their moves
+     */
+    long interiorNodes;
+    /**
+     * Number of moves generated by interior game states
+     */
+    long generatedMoves;
+    /**
+     * Number of interior game states that a move cut off
+     */
+    long cutoffs;
+    /**
+     * Number of interior game states that their first move cut off
+     */
+    long firstMoveCutoffs;
+    /**
+     * Number of transposition table probes
+     */
+    long tableProbes;
+    /**
+     * Number of transposition table probes that found an entry
+     */
+    long tableHits;
+    /**
+     * Number of game states whose score came from a transposition table entry
+     */
+    long tableCutoffs;
+    /**
+     * Deepest complete iteration
+     */
+    int depth;
+    /**
+     * Time of search in nanoseconds
+     */
+    long nanos;
+    /**
+     * Time of each complete iteration in nanoseconds, indexed by depth
+     */
+    long[] iterationNanos = new long[1];
+    /**
+     * Number of game states searched by each complete iteration, indexed by depth
+     */
+    long[] iterationNodes = new long[1];
+
+    /**
+     * Adds counters of specified statistics, e.g. of another thread of the same search.
+     *
+     * @param other statistics to add
+     */
+    void add(SearchStatistics other) {
+        nodes += other.nodes;
+        interiorNodes += other.interiorNodes;
+        generatedMoves += other.generatedMoves;
+        cutoffs += other.cutoffs;
+        firstMoveCutoffs += other.firstMoveCutoffs;
+        tableProbes += other.tableProbes;
+        tableHits += other.tableHits;
+        tableCutoffs += other.tableCutoffs;
+    }
+
+    /**
+     * Records a complete iteration.
+     *
+     * @param depth depth of the iteration
+     * @param nanos time of the iteration in nanoseconds
+     * @param nodes number of game states searched by the iteration
+     */
+    void addIteration(int depth, long nanos, long nodes) {
+        if (depth >= iterationNanos.length) {
+            iterationNanos = Arrays.copyOf(iterationNanos, depth + 1);
+            iterationNodes = Arrays.copyOf(iterationNodes, depth + 1);
+        }
+        this.depth = depth;
+        iterationNanos[depth] = nanos;
+        iterationNodes[depth] = nodes;
+    }
+
+    /**
+     * Gets number of searched game states.
+     *
+     * @return number of game states
+     */
+    public long getNodeCount() {
+        return nodes;
+    }
+
+    /**
+     * Gets number of interior game states, that generated their moves.
+     *
+     * @return number of interior game states
+     */
+    public long getInteriorNodeCount() {
+        return interiorNodes;
+    }
+
+    /**
+     * Gets depth of the deepest complete iteration.
+     *
+     * @return depth reached
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Gets time of search.
+     *
+     * @return time in nanoseconds
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * Gets time of the complete iteration of specified depth.
+     *
+     * @param depth depth of iteration, from 1 to {@link #getDepth()}
+     * @return time in nanoseconds, zero if the iteration is not complete
+     */
+    public long getIterationNanos(int depth) {
+        return depth < iterationNanos.length ? iterationNanos[depth] : 0;
+    }
+
+    /**
+     * Gets number of game states searched by the complete iteration of specified depth.
+     *
+     * @param depth depth of iteration, from 1 to {@link #getDepth()}
+     * @return number of game states, zero if the iteration is not complete
+     */
+    public long getIterationNodeCount(int depth) {
+        return depth < iterationNodes.length ? iterationNodes[depth] : 0;
+    }
+
+    /**
+     * Gets average number of moves of interior game states.
+     *
+     * @return average branching factor, zero if there are no interior game states
+     */
+    public double getBranchingFactor() {
+        return ratio(generatedMoves, interiorNodes);
+    }
+
+    /**
+     * Gets ratio of game states searched by the last two complete iterations, that is how many times the search grows
+     * by each level after pruning.
+     *
+     * @return effective branching factor, zero if less than two iterations are complete
+     */
+    public double getEffectiveBranchingFactor() {
+        return depth < 2 ? 0 : ratio(iterationNodes[depth], iterationNodes[depth - 1]);
+    }
+
+    /**
+     * Gets ratio of interior game states that a move cut off.
+     *
+     * @return cutoff rate in range 0 to 1
+     */
+    public double getCutoffRate() {
+        return ratio(cutoffs, interiorNodes);
+    }
+
+    /**
+     * Gets ratio of cutoffs that the first move made, that is how often move ordering puts the best move first.
+     *
+     * @return first move cutoff rate in range 0 to 1
+     */
+    public double getFirstMoveCutoffRate() {
+        return ratio(firstMoveCutoffs, cutoffs);
+    }
+
+    /**
+     * Gets ratio of transposition table probes that found an entry.
+     *
+     * @return table hit rate in range 0 to 1
+     */
+    public double getTableHitRate() {
+        return ratio(tableHits, tableProbes);
+    }
+
+    /**
+     * Gets ratio of transposition table probes that gave the score of the game state.
+     *
+     * @return table cutoff rate in range 0 to 1
+     */
+    public double getTableCutoffRate() {
+        return ratio(tableCutoffs, tableProbes);
+    }
+
+    /**
+     * Divides two counters.
+     *
+     * @param dividend counter to divide
+     * @param divisor  counter to divide by
+     * @return quotient, zero if divisor is zero
+     */
+    private static double ratio(long dividend, long divisor) {
+        return divisor == 0 ? 0 : (double) dividend / divisor;
+    }
+}
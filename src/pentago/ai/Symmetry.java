@@ -0,0 +1,123 @@
+package pentago.ai;
+
+/**
+ * The 8 symmetries of the pentago board, that are the 4 rotations and the 4 reflections of the whole board (dihedral
+ * group of the square). A symmetry maps blocks to blocks, so it maps every game state and every move to an equivalent
+ * game state and move with the same score.
+ * <br>
+ * Symmetry {@code s} in range 0 to 3 rotates the board {@code s} quarter turns clockwise, and symmetry {@code s} in
+ * range 4 to 7 reflects the board left to right and then rotates it {@code s - 4} quarter turns clockwise. Symmetry 0
+ * is the identity. Reflections change direction of block rotations.
+ */
+class Symmetry {
+    /**
+     * Number of symmetries
+     */
+    static final int COUNT = 8;
+    /**
+     * Index of transformed cell for each symmetry and cell index
+     */
+    private static final int[][] CELLS = new int[COUNT][36];
+    /**
+     * Transformed cells of each symmetry, block and 9 bit block state
+     */
+    private static final long[][][] MASKS = new long[COUNT][4][512];
+    /**
+     * Inverse of each symmetry
+     */
+    private static final int[] INVERSES = new int[COUNT];
+
+    static {
+        for (int symmetry = 0; symmetry < COUNT; symmetry++) {
+            for (int cellIndex = 0; cellIndex < 36; cellIndex++) {
+                int block = cellIndex / 9;
+                int row = (block / 2) * 3 + (cellIndex % 9) / 3;
+                int column = (block % 2) * 3 + cellIndex % 3;
+                if (symmetry >= 4) {
+                    column = 5 - column;
+                }
+                for (int i = 0; i < symmetry % 4; i++) {
+                    int temp = row;
+                    row = column;
+                    column = 5 - temp;
+                }
+                CELLS[symmetry][cellIndex] = ((row / 3) * 2 + column / 3) * 9 + (row % 3) * 3 + column % 3;
+            }
+            for (int block = 0; block < 4; block++) {
+                for (int state = 1; state < 512; state++) {
+                    int cell = Integer.numberOfTrailingZeros(state);
+                    MASKS[symmetry][block][state] = MASKS[symmetry][block][state & (state - 1)]
+                            | 1L << CELLS[symmetry][block * 9 + cell];
+                }
+            }
+        }
+        for (int symmetry = 0; symmetry < COUNT; symmetry++) {
+            for (int inverse = 0; inverse < COUNT; inverse++) {
+                boolean identity = true;
+                for (int cellIndex = 0; cellIndex < 36; cellIndex++) {
+                    identity &= CELLS[inverse][CELLS[symmetry][cellIndex]] == cellIndex;
+                }
+                if (identity) {
+                    INVERSES[symmetry] = inverse;
+                }
+            }
+        }
+    }
+
+    /**
+     * Utility class, not instantiable
+     */
+    private Symmetry() {
+    }
+
+    /**
+     * Transforms a cell with specified symmetry.
+     *
+     * @param symmetry  symmetry in range 0 to 7
+     * @param cellIndex bit index of cell, see {@link pentago.BitBoard}
+     * @return bit index of transformed cell
+     */
+    static int transformCell(int symmetry, int cellIndex) {
+        return CELLS[symmetry][cellIndex];
+    }
+
+    /**
+     * Transforms cells of a board with specified symmetry.
+     *
+     * @param symmetry symmetry in range 0 to 7
+     * @param mask     cells to transform
+     * @return transformed cells
+     */
+    static long transformMask(int symmetry, long mask) {
+        long[][] masks = MASKS[symmetry];
+        return masks[0][(int) mask & 0x1FF]
+                | masks[1][(int) (mask >>> 9) & 0x1FF]
+                | masks[2][(int) (mask >>> 18) & 0x1FF]
+                | masks[3][(int) (mask >>> 27) & 0x1FF];
+    }
+
+    /**
+     * Transforms a packed move with specified symmetry. The rotated block is the block that the symmetry maps the
+     * rotated block to, and the direction changes for reflections.
+     *
+     * @param symmetry symmetry in range 0 to 7
+     * @param move     packed move
+     * @return transformed packed move
+     */
+    static int transformMove(int symmetry, int move) {
+        int cellIndex = CELLS[symmetry][Move.getCellIndex(move)];
+        // the center cell of a block stays in the image of the block
+        int rotationBlock = CELLS[symmetry][(Move.getRotationBlock(move) - 1) * 9 + 4] / 9 + 1;
+        return Move.create(cellIndex, rotationBlock, Move.isClockwise(move) == (symmetry < 4));
+    }
+
+    /**
+     * Gets inverse of specified symmetry, that transforms back what the symmetry transforms.
+     *
+     * @param symmetry symmetry in range 0 to 7
+     * @return inverse symmetry
+     */
+    static int inverse(int symmetry) {
+        return INVERSES[symmetry];
+    }
+}
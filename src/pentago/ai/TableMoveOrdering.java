@@ -0,0 +1,24 @@
+package pentago.ai;
+
+/**
+ * Move ordering that only moves the best move of transposition table to the front.
+ */
+class TableMoveOrdering implements MoveOrdering {
+    @Override
+    public void order(GameState gameState, int ply, int[] moves, int count, int tableMove) {
+        if (tableMove == Move.NONE) {
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == tableMove) {
+                moves[i] = moves[0];
+                moves[0] = tableMove;
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void addCutoff(int ply, int depth, int move) {
+    }
+}
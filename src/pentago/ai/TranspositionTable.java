@@ -0,0 +1,229 @@
+package pentago.ai;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed-size transposition table that keeps search results of game states by their Zobrist hash, so a game state
+ * that is reached again by another order of moves is not searched again. It is an open-addressed table of buckets
+ * with 4 entries, each entry is a hash and a packed data word that keeps depth, bound type, score and best move.
+ * <br>
+ * When a bucket is full, the entry from an older generation and then the one with the lowest depth is replaced. Each
+ * search of a private table is a new generation. A table that is shared by concurrent searches is not aged by them,
+ * its owner starts a new generation by {@link #newEpoch()}, so entries of running searches are not replaced first.
+ * <br>
+ * The table can be used by many threads without locking. Each entry keeps its hash xored with its data, so an entry
+ * that is read while another thread writes it does not match the hash and is ignored.
+ * For more information about transposition tables,
+ * see <a href="https://en.wikipedia.org/wiki/Transposition_table">https://en.wikipedia.org/wiki/Transposition_table</a>
+ */
+public class TranspositionTable {
+    /**
+     * Bound type of an exact score
+     */
+    static final int EXACT = 1;
+    /**
+     * Bound type of a score that the exact score is greater than or equal to
+     */
+    static final int LOWER_BOUND = 2;
+    /**
+     * Bound type of a score that the exact score is less than or equal to
+     */
+    static final int UPPER_BOUND = 3;
+    /**
+     * Number of entries in each bucket
+     */
+    private static final int BUCKET_SIZE = 4;
+    /**
+     * Memory usage of each entry in bytes
+     */
+    private static final int ENTRY_BYTES = 16;
+    /**
+     * Hashes of entries xored with their data
+     */
+    private final long[] hashes;
+    /**
+     * Packed data of entries, zero means empty entry
+     */
+    private final long[] data;
+    /**
+     * Mask that converts a hash to an entry index
+     */
+    private final int indexMask;
+    /**
+     * Current generation, entries of older generations are replaced first
+     */
+    private final AtomicInteger generation = new AtomicInteger();
+    /**
+     * Whether the table is shared by concurrent searches, so searches do not start new generations
+     */
+    private final boolean shared;
+
+    /**
+     * Constructor of transposition table that uses at most specified memory. Each search starts a new generation.
+     *
+     * @param maxBytes maximum memory usage of table in bytes
+     */
+    public TranspositionTable(long maxBytes) {
+        this(maxBytes, false);
+    }
+
+    /**
+     * Constructor of transposition table that uses at most specified memory.
+     *
+     * @param maxBytes maximum memory usage of table in bytes
+     * @param shared   whether the table is shared by concurrent searches, then searches do not start new generations
+     *                 and only {@link #newEpoch()} does
+     */
+    public TranspositionTable(long maxBytes, boolean shared) {
+        this.shared = shared;
+        long entries = Math.max(BUCKET_SIZE, maxBytes / ENTRY_BYTES);
+        int capacity = Integer.highestOneBit((int) Math.min(entries, 1 << 30));
+        hashes = new long[capacity];
+        data = new long[capacity];
+        indexMask = (capacity - 1) & ~(BUCKET_SIZE - 1);
+    }
+
+    /**
+     * Gets number of entries of the table.
+     *
+     * @return number of entries
+     */
+    public int getCapacity() {
+        return hashes.length;
+    }
+
+    /**
+     * Starts a new search. In a private table it starts a new generation, entries of previous searches are kept but are
+     * replaced before entries of new search. In a shared table the generation does not change.
+     *
+     * @return generation that the search stores its entries with
+     */
+    int newSearch() {
+        return shared ? generation.get() & 0x3F : generation.incrementAndGet() & 0x3F;
+    }
+
+    /**
+     * Starts a new generation, entries of previous generations are kept but are replaced first. The owner of a shared
+     * table calls it once in a while, for example after a number of completed searches.
+     */
+    public void newEpoch() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Removes all entries of the table.
+     */
+    public void clear() {
+        Arrays.fill(hashes, 0);
+        Arrays.fill(data, 0);
+    }
+
+    /**
+     * Finds the entry of specified hash.
+     *
+     * @param hash hash of game state
+     * @return packed data of the entry or zero if the table does not have the hash
+     */
+    long probe(long hash) {
+        int bucket = (int) hash & indexMask;
+        for (int i = bucket; i < bucket + BUCKET_SIZE; i++) {
+            long entry = data[i];
+            if (entry != 0 && (hashes[i] ^ entry) == hash) {
+                return entry;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Stores search result of a game state.
+     *
+     * @param hash       hash of game state
+     * @param depth      searched depth
+     * @param bound      bound type of score
+     * @param score      score of game state
+     * @param move       best move of game state or -1 if it is not known
+     * @param generation generation of the search, that {@link #newSearch()} returned
+     */
+    void store(long hash, int depth, int bound, int score, int move, int generation) {
+        int bucket = (int) hash & indexMask;
+        int replace = bucket;
+        int replaceValue = Integer.MAX_VALUE;
+        long replaceEntry = 0;
+        for (int i = bucket; i < bucket + BUCKET_SIZE; i++) {
+            long entry = data[i];
+            if (entry != 0 && (hashes[i] ^ entry) == hash) {
+                replace = i;
+                replaceEntry = entry;
+                break;
+            }
+            // empty entries first, then older generations, then shallower entries
+            int value = entry == 0 ? -1 : (getGeneration(entry) == generation ? 256 : 0) + getDepth(entry);
+            if (value < replaceValue) {
+                replace = i;
+                replaceValue = value;
+            }
+        }
+        if (move < 0 && replaceEntry != 0) {
+            move = getMove(replaceEntry);
+        }
+        long entry = (score & 0xFFFFFFFFL)
+                | (long) (depth & 0xFF) << 32
+                | (long) bound << 40
+                | (long) ((move + 1) & 0xFFFF) << 42
+                | (long) generation << 58;
+        hashes[replace] = hash ^ entry;
+        data[replace] = entry;
+    }
+
+    /**
+     * Gets score of an entry.
+     *
+     * @param entry packed data of entry
+     * @return score
+     */
+    static int getScore(long entry) {
+        return (int) entry;
+    }
+
+    /**
+     * Gets searched depth of an entry.
+     *
+     * @param entry packed data of entry
+     * @return searched depth
+     */
+    static int getDepth(long entry) {
+        return (int) (entry >>> 32) & 0xFF;
+    }
+
+    /**
+     * Gets bound type of an entry.
+     *
+     * @param entry packed data of entry
+     * @return one of {@link #EXACT}, {@link #LOWER_BOUND} or {@link #UPPER_BOUND}
+     */
+    static int getBound(long entry) {
+        return (int) (entry >>> 40) & 0x3;
+    }
+
+    /**
+     * Gets best move of an entry.
+     *
+     * @param entry packed data of entry
+     * @return best move or -1 if it is not known
+     */
+    static int getMove(long entry) {
+        return ((int) (entry >>> 42) & 0xFFFF) - 1;
+    }
+
+    /**
+     * Gets search generation of an entry.
+     *
+     * @param entry packed data of entry
+     * @return search generation
+     */
+    private static int getGeneration(long entry) {
+        return (int) (entry >>> 58) & 0x3F;
+    }
+}
@@ -0,0 +1,274 @@
+package pentago.ai;
+
+import pentago.BitBoard;
+import pentago.Lines;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * Evaluator that scores a game state as a weighted sum of {@link EvaluationFeature}s. Features are counted for the
+ * cells of the player and of its opponent, and the score is the weighted difference. Features with weight 0 are not
+ * computed, so cheaper evaluation can be traded for deeper search.
+ * <br>
+ * Full lines are not checked one by one: cells are moved to a row major layout with rows of 7 bits, where the last bit
+ * of each row is always empty, and the starts of all full lines of a direction are found at once by shifting and
+ * combining the cells with AND. The empty bit at the end of rows stops lines from wrapping to the next row.
+ * <br>
+ * Weights can be loaded from a properties file with a key for each feature, see {@link EvaluationFeature#getKey()},
+ * for example {@code open.three=50}. Features that the file does not have keep their default weight.
+ */
+public final class WeightedEvaluator implements Evaluator {
+    /**
+     * Evaluator with default weights of all features
+     */
+    public static final WeightedEvaluator DEFAULT = new WeightedEvaluator(new Properties());
+    /**
+     * Number of bits of a row in the row major layout, 6 cells and an empty bit
+     */
+    private static final int ROW_BITS = 7;
+    /**
+     * Cells that are not located at edges of the board
+     */
+    private static final long CENTER_MASK = Lines.getCenterMask();
+    /**
+     * All 5 cell lines of the board
+     */
+    private static final long[] FIVE_LINES = Lines.getLines(5);
+    /**
+     * Weight of each feature by its ordinal
+     */
+    private final int[] weights = new int[EvaluationFeature.values().length];
+
+    /**
+     * Constructor of evaluator with weights of specified properties, see {@link WeightedEvaluator}.
+     *
+     * @param properties weights by feature key
+     * @throws IllegalArgumentException if a key is not a feature or a weight is not an integer
+     */
+    public WeightedEvaluator(Properties properties) {
+        for (EvaluationFeature feature : EvaluationFeature.values()) {
+            weights[feature.ordinal()] = feature.getDefaultWeight();
+        }
+        for (String key : properties.stringPropertyNames()) {
+            EvaluationFeature feature = getFeature(key);
+            String value = properties.getProperty(key).trim();
+            try {
+                weights[feature.ordinal()] = Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid weight of " + key + ": " + value);
+            }
+        }
+    }
+
+    /**
+     * Loads evaluator from specified weight file.
+     *
+     * @param file properties file of weights
+     * @return loaded evaluator
+     * @throws IOException if the file can not be read or it is not a valid weight file
+     */
+    public static WeightedEvaluator load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+        try {
+            return new WeightedEvaluator(properties);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Finds the feature of specified key.
+     *
+     * @param key key of feature in weight files
+     * @return the feature
+     * @throws IllegalArgumentException if the key is not a feature
+     */
+    private static EvaluationFeature getFeature(String key) {
+        for (EvaluationFeature feature : EvaluationFeature.values()) {
+            if (feature.getKey().equals(key)) {
+                return feature;
+            }
+        }
+        throw new IllegalArgumentException("Unknown evaluation feature: " + key);
+    }
+
+    /**
+     * Gets weight of specified feature.
+     *
+     * @param feature evaluation feature
+     * @return weight of feature
+     */
+    public int getWeight(EvaluationFeature feature) {
+        return weights[feature.ordinal()];
+    }
+
+    @Override
+    public int evaluate(long playerMask, long opponentMask) {
+        int fiveWeight = getWeight(EvaluationFeature.FIVE_IN_A_ROW);
+        int fourWeight = getWeight(EvaluationFeature.FOUR_IN_A_ROW);
+        int threeWeight = getWeight(EvaluationFeature.THREE_IN_A_ROW);
+        int centerWeight = getWeight(EvaluationFeature.CENTER);
+        int score = evaluateLines(playerMask, fiveWeight, fourWeight, threeWeight, centerWeight)
+                - evaluateLines(opponentMask, fiveWeight, fourWeight, threeWeight, centerWeight);
+        if (getWeight(EvaluationFeature.OPEN_FOUR) != 0 || getWeight(EvaluationFeature.OPEN_THREE) != 0) {
+            score += evaluateOpenLines(playerMask, opponentMask) - evaluateOpenLines(opponentMask, playerMask);
+        }
+        int rotationThreatWeight = getWeight(EvaluationFeature.ROTATION_THREAT);
+        if (rotationThreatWeight != 0) {
+            score += rotationThreatWeight * (countRotationThreats(playerMask) - countRotationThreats(opponentMask));
+        }
+        return score;
+    }
+
+    /**
+     * Computes utility scores of many game states at once. Weights are read once, and if only features of full lines
+     * and center pieces have weights, as with the default weights, all game states are scored by the branch free line
+     * kernel in a single loop over the arrays.
+     *
+     * @param playerMasks   cells of the player of each game state
+     * @param opponentMasks cells of the opponent of each game state
+     * @param count         number of game states
+     * @param scores        buffer that score of game state {@code i} is written to at index {@code i}
+     */
+    @Override
+    public void evaluate(long[] playerMasks, long[] opponentMasks, int count, int[] scores) {
+        if (getWeight(EvaluationFeature.OPEN_FOUR) != 0 || getWeight(EvaluationFeature.OPEN_THREE) != 0
+                || getWeight(EvaluationFeature.ROTATION_THREAT) != 0) {
+            for (int i = 0; i < count; i++) {
+                scores[i] = evaluate(playerMasks[i], opponentMasks[i]);
+            }
+            return;
+        }
+        int fiveWeight = getWeight(EvaluationFeature.FIVE_IN_A_ROW);
+        int fourWeight = getWeight(EvaluationFeature.FOUR_IN_A_ROW);
+        int threeWeight = getWeight(EvaluationFeature.THREE_IN_A_ROW);
+        int centerWeight = getWeight(EvaluationFeature.CENTER);
+        for (int i = 0; i < count; i++) {
+            scores[i] = evaluateLines(playerMasks[i], fiveWeight, fourWeight, threeWeight, centerWeight)
+                    - evaluateLines(opponentMasks[i], fiveWeight, fourWeight, threeWeight, centerWeight);
+        }
+    }
+
+    /**
+     * Computes score of full lines and center pieces of the cells of one color.
+     *
+     * @param mask         cells of one color in the layout of {@link BitBoard}
+     * @param fiveWeight   weight of {@link EvaluationFeature#FIVE_IN_A_ROW}
+     * @param fourWeight   weight of {@link EvaluationFeature#FOUR_IN_A_ROW}
+     * @param threeWeight  weight of {@link EvaluationFeature#THREE_IN_A_ROW}
+     * @param centerWeight weight of {@link EvaluationFeature#CENTER}
+     * @return score of the cells
+     */
+    private static int evaluateLines(long mask, int fiveWeight, int fourWeight, int threeWeight, int centerWeight) {
+        long cells = toRows(mask);
+        int fours = 0;
+        int threes = 0;
+        long fives = 0;
+        // lines down left, down and down right, then lines to the right
+        for (int shift = 6; shift <= 8; shift++) {
+            long two = cells & cells >>> shift;
+            long three = two & cells >>> 2 * shift;
+            long four = three & cells >>> 3 * shift;
+            threes += Long.bitCount(three);
+            fours += Long.bitCount(four);
+            fives |= four & cells >>> 4 * shift;
+        }
+        long two = cells & cells >>> 1;
+        long three = two & cells >>> 2;
+        long four = three & cells >>> 3;
+        threes += Long.bitCount(three);
+        fours += Long.bitCount(four);
+        fives |= four & cells >>> 4;
+        // only having a 5-in-a-row is scored, not the number of them
+        int five = (int) ((fives | -fives) >>> 63);
+        return five * fiveWeight + fours * fourWeight + threes * threeWeight
+                + Long.bitCount(mask & CENTER_MASK) * centerWeight;
+    }
+
+    /**
+     * Computes score of 5 cell lines of the cells of one color that have no piece of the other color.
+     *
+     * @param mask      cells of one color
+     * @param otherMask cells of the other color
+     * @return score of open lines
+     */
+    private int evaluateOpenLines(long mask, long otherMask) {
+        int openFours = 0;
+        int openThrees = 0;
+        for (long line : FIVE_LINES) {
+            if ((otherMask & line) == 0) {
+                int pieces = Long.bitCount(mask & line);
+                if (pieces == 4) {
+                    openFours++;
+                } else if (pieces == 3) {
+                    openThrees++;
+                }
+            }
+        }
+        return openFours * getWeight(EvaluationFeature.OPEN_FOUR)
+                + openThrees * getWeight(EvaluationFeature.OPEN_THREE);
+    }
+
+    /**
+     * Counts block rotations that make a 5-in-a-row of the cells of one color, see
+     * {@link EvaluationFeature#ROTATION_THREAT}.
+     *
+     * @param mask cells of one color
+     * @return number of rotations
+     */
+    private static int countRotationThreats(long mask) {
+        if (Lines.hasFiveInARow(mask)) {
+            return 0;
+        }
+        int threats = 0;
+        for (int blockNumber = 1; blockNumber <= 4; blockNumber++) {
+            if (Lines.hasFiveInARow(BitBoard.rotate(mask, blockNumber, true))) {
+                threats++;
+            }
+            if (Lines.hasFiveInARow(BitBoard.rotate(mask, blockNumber, false))) {
+                threats++;
+            }
+        }
+        return threats;
+    }
+
+    /**
+     * Moves cells from the layout of {@link BitBoard} to the row major layout, where cell of row {@code r} and column
+     * {@code c} is bit {@code r * 7 + c}. Each row of a block is 3 contiguous bits in both layouts.
+     *
+     * @param mask cells in the layout of {@link BitBoard}
+     * @return cells in the row major layout
+     */
+    private static long toRows(long mask) {
+        long cells = 0;
+        for (int block = 0; block < 4; block++) {
+            int column = block % 2 * 3;
+            for (int blockRow = 0; blockRow < 3; blockRow++) {
+                int row = block / 2 * 3 + blockRow;
+                cells |= (mask >>> block * 9 + blockRow * 3 & 7) << row * ROW_BITS + column;
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Gets weights of all features in weight file format.
+     *
+     * @return text of weights, one feature per line
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (EvaluationFeature feature : EvaluationFeature.values()) {
+            builder.append(feature.getKey()).append('=').append(getWeight(feature)).append(System.lineSeparator());
+        }
+        return builder.toString();
+    }
+}
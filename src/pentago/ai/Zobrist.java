@@ -0,0 +1,95 @@
+package pentago.ai;
+
+import pentago.BitBoard;
+
+import java.util.Random;
+
+/**
+ * Zobrist hashing of game states. Every cell and color has a random key and the hash of a game state is the xor of
+ * the keys of all filled cells and the key of the color that moves next.
+ * <br>
+ * The hash of a game state can also be computed as if the board was transformed by a {@link Symmetry}, and the
+ * smallest of the 8 hashes is the same for all symmetric game states. The keys of each symmetry are kept for every
+ * block state, so a hash is 8 table lookups.
+ * For more information about Zobrist hashing,
+ * see <a href="https://en.wikipedia.org/wiki/Zobrist_hashing">https://en.wikipedia.org/wiki/Zobrist_hashing</a>
+ */
+class Zobrist {
+    /**
+     * Keys of red pieces for each symmetry, block and 9 bit block state
+     */
+    private static final long[][][] RED_BLOCK_KEYS = new long[Symmetry.COUNT][4][512];
+    /**
+     * Keys of black pieces for each symmetry, block and 9 bit block state
+     */
+    private static final long[][][] BLACK_BLOCK_KEYS = new long[Symmetry.COUNT][4][512];
+    /**
+     * Key of game states that red moves next
+     */
+    static final long RED_TURN_KEY;
+
+    static {
+        // fixed seed keeps hashes same between runs
+        Random random = new Random(0x5EED);
+        long[] redKeys = new long[36];
+        long[] blackKeys = new long[36];
+        for (int i = 0; i < 36; i++) {
+            redKeys[i] = random.nextLong();
+            blackKeys[i] = random.nextLong();
+        }
+        RED_TURN_KEY = random.nextLong();
+        for (int symmetry = 0; symmetry < Symmetry.COUNT; symmetry++) {
+            for (int block = 0; block < 4; block++) {
+                for (int state = 1; state < 512; state++) {
+                    int cellIndex = Symmetry.transformCell(symmetry, block * 9 + Integer.numberOfTrailingZeros(state));
+                    RED_BLOCK_KEYS[symmetry][block][state] =
+                            RED_BLOCK_KEYS[symmetry][block][state & (state - 1)] ^ redKeys[cellIndex];
+                    BLACK_BLOCK_KEYS[symmetry][block][state] =
+                            BLACK_BLOCK_KEYS[symmetry][block][state & (state - 1)] ^ blackKeys[cellIndex];
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes hash of specified board.
+     *
+     * @param board   board to compute hash
+     * @param redTurn {@code true} if red moves next, {@code false} otherwise
+     * @return hash of the board
+     */
+    static long hash(BitBoard board, boolean redTurn) {
+        return hash(board, redTurn, 0);
+    }
+
+    /**
+     * Computes hash of specified board transformed by specified symmetry.
+     *
+     * @param board    board to compute hash
+     * @param redTurn  {@code true} if red moves next, {@code false} otherwise
+     * @param symmetry symmetry in range 0 to 7, see {@link Symmetry}
+     * @return hash of the transformed board
+     */
+    static long hash(BitBoard board, boolean redTurn, int symmetry) {
+        return hash(board.getRedMask(), board.getBlackMask(), redTurn, symmetry);
+    }
+
+    /**
+     * Computes hash of specified cells transformed by specified symmetry.
+     *
+     * @param red      cells of red pieces
+     * @param black    cells of black pieces
+     * @param redTurn  {@code true} if red moves next, {@code false} otherwise
+     * @param symmetry symmetry in range 0 to 7, see {@link Symmetry}
+     * @return hash of the transformed cells
+     */
+    static long hash(long red, long black, boolean redTurn, int symmetry) {
+        long hash = 0;
+        for (int block = 0; block < 4; block++) {
+            int shift = block * 9;
+            hash ^= RED_BLOCK_KEYS[symmetry][block][(int) (red >>> shift) & 0x1FF]
+                    ^ BLACK_BLOCK_KEYS[symmetry][block][(int) (black >>> shift) & 0x1FF];
+        }
+        return redTurn ? hash ^ RED_TURN_KEY : hash;
+    }
+}